@@ -0,0 +1,111 @@
+package gay.debuggy.staticdata.bench;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+import gay.debuggy.staticdata.api.StaticDataItem;
+import gay.debuggy.staticdata.impl.CachedDataItem;
+import gay.debuggy.staticdata.impl.PathDataItem;
+import gay.debuggy.staticdata.impl.SdPack;
+import gay.debuggy.staticdata.impl.SdPackDataItem;
+import gay.debuggy.staticdata.impl.SdPackWriter;
+import gay.debuggy.staticdata.impl.ZipDataItem;
+import gay.debuggy.staticdata.impl.ZipPack;
+import net.minecraft.util.Identifier;
+
+/**
+ * Measures the getAs* accessors of each kind of StaticDataItem.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class DataItemBenchmark {
+	public enum Kind { PATH, CACHED, ZIP_STORED, ZIP_DEFLATED, SDPACK }
+	
+	@Param({ "1024", "65536", "1048576" })
+	public int size;
+	
+	@Param({ "PATH", "CACHED", "ZIP_STORED", "ZIP_DEFLATED", "SDPACK" })
+	public Kind kind;
+	
+	private Path dir;
+	private StaticDataItem item;
+	private final byte[] buffer = new byte[8192];
+	
+	@Setup
+	public void setup() throws IOException {
+		dir = Files.createTempDirectory("staticdata-bench");
+		byte[] data = SyntheticStaticData.json(new Random(size), size);
+		Identifier resourceId = Identifier.of(SyntheticStaticData.NAMESPACE, "data.json");
+		
+		switch (kind) {
+			case PATH -> {
+				Path path = dir.resolve("data.json");
+				Files.write(path, data);
+				item = new PathDataItem("bench", resourceId, path);
+			}
+			case CACHED -> item = new CachedDataItem("bench", resourceId, data);
+			case ZIP_STORED, ZIP_DEFLATED -> {
+				Path zipPath = dir.resolve("data.zip");
+				SyntheticStaticData.writeSingleEntryZip(zipPath, "staticdata/consumer/data.json", data, kind == Kind.ZIP_DEFLATED);
+				ZipPack pack = new ZipPack(zipPath);
+				item = new ZipDataItem("bench", resourceId, pack, pack.getEntries().get(0));
+			}
+			case SDPACK -> {
+				Path source = dir.resolve("source");
+				Files.createDirectories(source.resolve(SyntheticStaticData.NAMESPACE));
+				Files.write(source.resolve(SyntheticStaticData.NAMESPACE).resolve("data.json"), data);
+				Path packPath = dir.resolve("data"+SdPack.EXTENSION);
+				SdPackWriter.write(source, packPath);
+				item = new SdPackDataItem("bench", resourceId, new SdPack(packPath), 0);
+			}
+		}
+	}
+	
+	@TearDown
+	public void tearDown() throws IOException {
+		SyntheticStaticData.delete(dir);
+	}
+	
+	@Benchmark
+	public byte[] getAsBytes() throws IOException {
+		return item.getAsBytes();
+	}
+	
+	@Benchmark
+	public String getAsString() throws IOException {
+		return item.getAsString();
+	}
+	
+	@Benchmark
+	public long getAsStream() throws IOException {
+		return SyntheticStaticData.drain(item.getAsStream(), buffer);
+	}
+	
+	@Benchmark
+	public long streamLines() throws IOException {
+		try (Stream<String> lines = item.streamLines()) {
+			return lines.count();
+		}
+	}
+	
+	@Benchmark
+	public ByteBuffer getAsByteBuffer() throws IOException {
+		return item.getAsByteBuffer();
+	}
+}
@@ -0,0 +1,82 @@
+package gay.debuggy.staticdata.bench;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.infra.Blackhole;
+
+import gay.debuggy.staticdata.impl.EntryNameMatcher;
+import gay.debuggy.staticdata.impl.StaticDataImpl;
+
+/**
+ * Measures picking the staticdata entries out of a pack's central directory, over names laid out the way a mod jar
+ * lays them out: mostly classes and assets, with a few directories and some staticdata.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class MatcherBenchmark {
+	@Param({ "1000" })
+	public int paths;
+	
+	private ByteBuffer names;
+	private int[] offsets;
+	private int[] lengths;
+	
+	@Setup
+	public void setup() {
+		String[] entryNames = new String[paths];
+		for(int i=0; i<paths; i++) {
+			String modId = "mod"+(i % 17);
+			entryNames[i] = switch(i % 4) {
+				case 0 -> "staticdata/"+SyntheticStaticData.NAMESPACE+"/"+SyntheticStaticData.filePath(modId, i);
+				case 1 -> "com/example/"+modId+"/Generated"+i+".class";
+				case 2 -> "assets/"+modId+"/textures/block/"+i+".png";
+				default -> (i % 8 == 3) ? "data/"+modId+"/" : "data/"+modId+"/recipe/"+i+".json";
+			};
+		}
+		
+		byte[][] encoded = new byte[paths][];
+		int total = 0;
+		for(int i=0; i<paths; i++) {
+			encoded[i] = entryNames[i].getBytes(StandardCharsets.UTF_8);
+			total += encoded[i].length;
+		}
+		
+		names = ByteBuffer.allocate(total);
+		offsets = new int[paths];
+		lengths = new int[paths];
+		for(int i=0; i<paths; i++) {
+			offsets[i] = names.position();
+			lengths[i] = encoded[i].length;
+			names.put(encoded[i]);
+		}
+	}
+	
+	@Benchmark
+	public void rawNameMatcher(Blackhole blackhole) {
+		EntryNameMatcher matcher = EntryNameMatcher.staticData();
+		for(int i=0; i<paths; i++) {
+			blackhole.consume(matcher.accepts(names, offsets[i], lengths[i]));
+		}
+	}
+	
+	@Benchmark
+	public void decodeThenMatch(Blackhole blackhole) {
+		for(int i=0; i<paths; i++) {
+			byte[] nameBytes = new byte[lengths[i]];
+			names.get(offsets[i], nameBytes);
+			String name = new String(nameBytes, StandardCharsets.UTF_8);
+			blackhole.consume(!name.endsWith("/") && StaticDataImpl.toPartialPath(name) != null);
+		}
+	}
+}
@@ -0,0 +1,123 @@
+package gay.debuggy.staticdata.bench;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+
+import gay.debuggy.staticdata.api.DirectoryQuery;
+import gay.debuggy.staticdata.api.StaticDataItem;
+import gay.debuggy.staticdata.impl.StaticDataEngine;
+import gay.debuggy.staticdata.impl.StaticDataIndex;
+import net.minecraft.util.Identifier;
+
+/**
+ * Measures queries against an already-built index, from one thread and from every available thread at once. Since the
+ * index is immutable and unlocked, throughput should scale with the thread count.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class QueryBenchmark {
+	@Param({ "300" })
+	public int mods;
+	
+	@Param({ "LOOSE", "ZIP_FAST", "SDPACK", "MEMORY" })
+	public SyntheticStaticData.Layout layout;
+	
+	private Path dir;
+	private StaticDataIndex index;
+	private Identifier exactId;
+	private Identifier missingId;
+	private Identifier directoryId;
+	private List<DirectoryQuery> batch;
+	
+	@Setup
+	public void setup() throws IOException {
+		dir = Files.createTempDirectory("staticdata-bench");
+		StaticDataEngine engine = new StaticDataEngine();
+		if (layout == SyntheticStaticData.Layout.MEMORY) {
+			engine.addSources(SyntheticStaticData.createSources(mods, 30, 256));
+		} else {
+			engine.addRoots(SyntheticStaticData.create(dir, mods, 30, 256, layout));
+		}
+		index = engine.scan();
+		exactId = Identifier.of(SyntheticStaticData.NAMESPACE, SyntheticStaticData.filePath("mod"+(mods / 2), 0));
+		missingId = Identifier.of(SyntheticStaticData.NAMESPACE, "compat/othermod.json");
+		directoryId = Identifier.of(SyntheticStaticData.NAMESPACE, "items");
+		batch = List.of(
+				new DirectoryQuery(Identifier.of(SyntheticStaticData.NAMESPACE, "blocks"), true),
+				new DirectoryQuery(Identifier.of(SyntheticStaticData.NAMESPACE, "items"), true),
+				new DirectoryQuery(Identifier.of(SyntheticStaticData.NAMESPACE, "compat"), true),
+				new DirectoryQuery(Identifier.of(SyntheticStaticData.NAMESPACE, "blocks/mod0"), false));
+	}
+	
+	@TearDown
+	public void tearDown() throws IOException {
+		SyntheticStaticData.delete(dir);
+	}
+	
+	@Benchmark
+	public List<StaticDataItem> getExactData() {
+		return index.getExactData(exactId);
+	}
+	
+	@Benchmark
+	public List<StaticDataItem> getExactDataMiss() {
+		return index.getExactData(missingId);
+	}
+	
+	@Benchmark
+	public boolean containsData() {
+		return index.containsData(exactId);
+	}
+	
+	@Benchmark
+	public boolean containsDataMiss() {
+		return index.containsData(missingId);
+	}
+	
+	@Benchmark
+	public List<StaticDataItem> getDataInDirectory() {
+		return index.getDataInDirectory(directoryId, true);
+	}
+	
+	@Benchmark
+	public List<StaticDataItem> getOverlaidDataInDirectory() {
+		return index.getOverlaidDataInDirectory(directoryId, true, null);
+	}
+	
+	@Benchmark
+	public List<List<StaticDataItem>> getDataInDirectoriesSeparately() {
+		return batch.stream().map(query -> index.getDataInDirectory(query.resourceId(), query.recursive())).toList();
+	}
+	
+	@Benchmark
+	public List<List<StaticDataItem>> getDataInDirectoriesBatched() {
+		return index.getDataInDirectories(batch);
+	}
+	
+	@Benchmark
+	@Threads(Threads.MAX)
+	public List<StaticDataItem> getExactDataContended() {
+		return index.getExactData(exactId);
+	}
+	
+	@Benchmark
+	@Threads(Threads.MAX)
+	public List<StaticDataItem> getDataInDirectoryContended() {
+		return index.getDataInDirectory(directoryId, true);
+	}
+}
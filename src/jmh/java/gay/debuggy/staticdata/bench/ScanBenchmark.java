@@ -0,0 +1,65 @@
+package gay.debuggy.staticdata.bench;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.infra.Blackhole;
+
+import gay.debuggy.staticdata.impl.StaticDataImpl;
+import gay.debuggy.staticdata.impl.StaticDataIndex;
+import gay.debuggy.staticdata.impl.StaticDataRoot;
+
+/**
+ * Measures discovering staticdata across many mods: building the whole index, and walking the raw files of every root.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class ScanBenchmark {
+	@Param({ "50", "300" })
+	public int mods;
+	
+	@Param({ "30", "300" })
+	public int filesPerMod;
+	
+	@Param({ "LOOSE", "ZIP_STORED", "ZIP_FAST", "ZIP_BEST", "SDPACK" })
+	public SyntheticStaticData.Layout layout;
+	
+	private Path dir;
+	private List<StaticDataRoot> roots;
+	
+	@Setup
+	public void setup() throws IOException {
+		dir = Files.createTempDirectory("staticdata-bench");
+		roots = SyntheticStaticData.create(dir, mods, filesPerMod, 512, layout);
+	}
+	
+	@TearDown
+	public void tearDown() throws IOException {
+		SyntheticStaticData.delete(dir);
+	}
+	
+	@Benchmark
+	public StaticDataIndex scanIndex() {
+		return StaticDataIndex.scan(roots);
+	}
+	
+	@Benchmark
+	public void listFiles(Blackhole blackhole) {
+		for(StaticDataRoot root : roots) {
+			blackhole.consume(StaticDataImpl.listFiles(root.path(), true));
+		}
+	}
+}
@@ -0,0 +1,183 @@
+package gay.debuggy.staticdata.bench;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+import java.util.stream.Stream;
+import java.util.zip.CRC32;
+import java.util.zip.Deflater;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+import gay.debuggy.staticdata.impl.CreditedSource;
+import gay.debuggy.staticdata.impl.MemoryStaticDataSource;
+import gay.debuggy.staticdata.impl.SdPack;
+import gay.debuggy.staticdata.impl.SdPackWriter;
+import gay.debuggy.staticdata.impl.StaticDataRoot;
+import net.minecraft.util.Identifier;
+
+/**
+ * Generates staticdata layouts on disk for benchmarks, standing in for the mods FabricLoader would normally report.
+ * 
+ * <p>Every mod supplies files to the "consumer" namespace, spread over {@code blocks/<mod>/}, {@code items/<mod>/} and a
+ * deeper {@code compat/<mod>/nested/} folder, so that directory searches have both matches and near-misses to skip.
+ */
+public final class SyntheticStaticData {
+	public static final String NAMESPACE = "consumer";
+	
+	public enum Layout {
+		/** Raw files in each mod's staticdata folder */
+		LOOSE,
+		/** One staticdata pack per mod, with every entry stored uncompressed */
+		ZIP_STORED,
+		/** One staticdata pack per mod, deflated at the fastest level */
+		ZIP_FAST,
+		/** One staticdata pack per mod, deflated at the best level */
+		ZIP_BEST,
+		/** One precompiled sdpack per mod */
+		SDPACK,
+		/** One in-memory StaticDataSource per mod, made by {@link SyntheticStaticData#createSources} */
+		MEMORY
+	}
+	
+	private SyntheticStaticData() {}
+	
+	/**
+	 * Writes a synthetic layout into dir.
+	 * @param dir an empty folder to write into
+	 * @param mods how many mod roots to create
+	 * @param filesPerMod how many files each mod supplies
+	 * @param fileSize the approximate size of each file in bytes
+	 * @param layout how the files are stored
+	 * @return the staticdata roots, in listing order
+	 */
+	public static List<StaticDataRoot> create(Path dir, int mods, int filesPerMod, int fileSize, Layout layout) throws IOException {
+		if (layout == Layout.MEMORY) throw new IllegalArgumentException("In-memory data has no staticdata roots");
+		
+		List<StaticDataRoot> result = new ArrayList<>();
+		Random random = new Random(mods * 31L + filesPerMod);
+		
+		for(int mod=0; mod<mods; mod++) {
+			String modId = "mod"+mod;
+			Path root = dir.resolve(modId).resolve("staticdata");
+			Files.createDirectories(root);
+			
+			if (layout == Layout.LOOSE || layout == Layout.SDPACK) {
+				Path source = (layout == Layout.LOOSE) ? root : dir.resolve(modId).resolve("source");
+				for(int file=0; file<filesPerMod; file++) {
+					Path path = source.resolve(NAMESPACE).resolve(filePath(modId, file));
+					Files.createDirectories(path.getParent());
+					Files.write(path, json(random, fileSize));
+				}
+				
+				if (layout == Layout.SDPACK) {
+					SdPackWriter.write(source, root.resolve(modId+SdPack.EXTENSION));
+					delete(source);
+				}
+			} else {
+				try (ZipOutputStream out = new ZipOutputStream(Files.newOutputStream(root.resolve(modId+".zip")))) {
+					out.setLevel((layout == Layout.ZIP_FAST) ? Deflater.BEST_SPEED : Deflater.BEST_COMPRESSION);
+					
+					for(int file=0; file<filesPerMod; file++) {
+						byte[] data = json(random, fileSize);
+						ZipEntry entry = new ZipEntry("staticdata/"+NAMESPACE+"/"+filePath(modId, file));
+						if (layout == Layout.ZIP_STORED) storeUncompressed(entry, data);
+						out.putNextEntry(entry);
+						out.write(data);
+						out.closeEntry();
+					}
+				}
+			}
+			
+			result.add(new StaticDataRoot(modId, root));
+		}
+		
+		return result;
+	}
+	
+	/**
+	 * Creates the same data as {@link #create}, held in memory instead.
+	 * @return one source per mod, in listing order
+	 */
+	public static List<CreditedSource> createSources(int mods, int filesPerMod, int fileSize) {
+		List<CreditedSource> result = new ArrayList<>();
+		Random random = new Random(mods * 31L + filesPerMod);
+		
+		for(int mod=0; mod<mods; mod++) {
+			String modId = "mod"+mod;
+			MemoryStaticDataSource source = new MemoryStaticDataSource();
+			for(int file=0; file<filesPerMod; file++) {
+				source.put(Identifier.of(NAMESPACE, filePath(modId, file)), json(random, fileSize));
+			}
+			result.add(new CreditedSource(modId, source));
+		}
+		
+		return result;
+	}
+	
+	/**
+	 * Writes a single staticdata pack containing one entry.
+	 */
+	public static void writeSingleEntryZip(Path zipPath, String entryName, byte[] data, boolean compress) throws IOException {
+		try (ZipOutputStream out = new ZipOutputStream(Files.newOutputStream(zipPath))) {
+			ZipEntry entry = new ZipEntry(entryName);
+			if (!compress) storeUncompressed(entry, data);
+			out.putNextEntry(entry);
+			out.write(data);
+			out.closeEntry();
+		}
+	}
+	
+	public static String filePath(String modId, int file) {
+		return switch (file % 3) {
+			case 0 -> "blocks/"+modId+"/block_"+file+".json";
+			case 1 -> "items/"+modId+"/item_"+file+".json";
+			default -> "compat/"+modId+"/nested/compat_"+file+".json";
+		};
+	}
+	
+	/**
+	 * Generates compressible, JSON-like data of roughly the requested size.
+	 */
+	public static byte[] json(Random random, int size) {
+		StringBuilder result = new StringBuilder(size + 32).append('{');
+		while (result.length() < size) {
+			result.append("\"key_").append(random.nextInt(64)).append("\": ").append(random.nextInt(100000)).append(", ");
+		}
+		return result.append('}').toString().getBytes(StandardCharsets.UTF_8);
+	}
+	
+	private static void storeUncompressed(ZipEntry entry, byte[] data) {
+		CRC32 crc = new CRC32();
+		crc.update(data);
+		entry.setMethod(ZipEntry.STORED);
+		entry.setSize(data.length);
+		entry.setCompressedSize(data.length);
+		entry.setCrc(crc.getValue());
+	}
+	
+	public static void delete(Path dir) throws IOException {
+		if (!Files.exists(dir)) return;
+		try (Stream<Path> paths = Files.walk(dir)) {
+			for(Path path : paths.sorted(Comparator.reverseOrder()).toList()) Files.delete(path);
+		}
+	}
+	
+	/**
+	 * Reads an entire stream into a small reusable buffer, returning the number of bytes read.
+	 */
+	public static long drain(InputStream in, byte[] buffer) throws IOException {
+		long total = 0;
+		try (in) {
+			int read;
+			while ((read = in.read(buffer)) != -1) total += read;
+		}
+		return total;
+	}
+}
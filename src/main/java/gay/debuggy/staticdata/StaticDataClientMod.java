@@ -0,0 +1,21 @@
+package gay.debuggy.staticdata;
+
+import gay.debuggy.staticdata.impl.StaticDataConfig;
+import gay.debuggy.staticdata.impl.StaticDataProfiler;
+import gay.debuggy.staticdata.impl.ZipPack;
+import net.fabricmc.api.ClientModInitializer;
+import net.fabricmc.fabric.api.client.event.lifecycle.v1.ClientLifecycleEvents;
+
+public class StaticDataClientMod implements ClientModInitializer {
+	
+	@Override
+	public void onInitializeClient() {
+		if (StaticDataConfig.PROFILE) {
+			ClientLifecycleEvents.CLIENT_STARTED.register(client -> StaticDataProfiler.logReport());
+		}
+		
+		// Let go of open packs once the game shuts down
+		ClientLifecycleEvents.CLIENT_STOPPING.register(client -> ZipPack.closeAll());
+	}
+	
+}
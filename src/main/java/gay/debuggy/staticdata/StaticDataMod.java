@@ -3,14 +3,29 @@
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import gay.debuggy.staticdata.impl.StaticDataConfig;
+import gay.debuggy.staticdata.impl.StaticDataProfiler;
+import gay.debuggy.staticdata.impl.ZipPack;
+import net.fabricmc.api.EnvType;
 import net.fabricmc.api.ModInitializer;
+import net.fabricmc.fabric.api.event.lifecycle.v1.ServerLifecycleEvents;
+import net.fabricmc.loader.api.FabricLoader;
 
 public class StaticDataMod implements ModInitializer {
 	public static final Logger LOGGER = LoggerFactory.getLogger("StaticData");
 	
 	@Override
 	public void onInitialize() {
-		// we don't really need to do anything here for a library mod, this is just here to satisfy assumptions about mods.
+		// we don't really need to do much here for a library mod, this is mostly here to satisfy assumptions about mods.
+		if (StaticDataConfig.PROFILE) {
+			ServerLifecycleEvents.SERVER_STARTED.register(server -> StaticDataProfiler.logReport());
+		}
+		
+		// Let go of open packs once the game shuts down. On the client, the integrated server stops every time a world is
+		// closed while the client's items can still be read, so StaticDataClientMod waits for the client to stop instead.
+		if (FabricLoader.getInstance().getEnvironmentType() == EnvType.SERVER) {
+			ServerLifecycleEvents.SERVER_STOPPED.register(server -> ZipPack.closeAll());
+		}
 	}
 	
 }
@@ -0,0 +1,15 @@
+package gay.debuggy.staticdata;
+
+import gay.debuggy.staticdata.impl.StaticDataConfig;
+import gay.debuggy.staticdata.impl.StaticDataLoader;
+import net.fabricmc.loader.api.entrypoint.PreLaunchEntrypoint;
+
+public class StaticDataPreLaunch implements PreLaunchEntrypoint {
+	
+	@Override
+	public void onPreLaunch() {
+		// Get the scan going while Minecraft bootstraps, so ModInitializers don't have to wait for all of it
+		if (StaticDataConfig.WARM_UP) StaticDataLoader.startInBackground();
+	}
+
+}
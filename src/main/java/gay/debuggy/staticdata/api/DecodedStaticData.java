@@ -0,0 +1,20 @@
+package gay.debuggy.staticdata.api;
+
+import com.mojang.serialization.DataResult;
+
+import net.minecraft.util.Identifier;
+
+/**
+ * The result of decoding one piece of static data with a Codec, tagged with where the data came from so that problems
+ * can be reported against both the file and its supplier.
+ * 
+ * <p>Decoded values may be shared between every mod that decodes the same file with the same Codec, so they MUST be
+ * treated as immutable.
+ * 
+ * @param modId the modId of the mod which supplied the data, as in {@link StaticDataItem#getModId()}
+ * @param resourceId the Identifier of the file, as in {@link StaticDataItem#getResourceId()}
+ * @param result the decoded value, or an error describing why the file couldn't be read or decoded
+ * @param <T> the type the Codec decodes
+ */
+public record DecodedStaticData<T>(String modId, Identifier resourceId, DataResult<T> result) {
+}
@@ -0,0 +1,12 @@
+package gay.debuggy.staticdata.api;
+
+import net.minecraft.util.Identifier;
+
+/**
+ * One directory to list in a {@link StaticData#getDataInDirectories(java.util.List) batch query}.
+ * 
+ * @param resourceId the Identifier of the folder, as in {@link StaticData#getDataInDirectory(Identifier, boolean)}
+ * @param recursive true if subfolders within this folder should also be searched
+ */
+public record DirectoryQuery(Identifier resourceId, boolean recursive) {
+}
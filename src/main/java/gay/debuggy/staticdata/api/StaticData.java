@@ -1,15 +1,30 @@
 package gay.debuggy.staticdata.api;
 
 import java.io.IOException;
-import java.nio.file.Files;
+import java.io.UncheckedIOException;
 import java.nio.file.Path;
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
 import java.util.List;
-import java.util.Set;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
 
-import gay.debuggy.staticdata.impl.StaticDataImpl;
+import org.jetbrains.annotations.Nullable;
+
+import com.mojang.serialization.Codec;
+
+import gay.debuggy.staticdata.impl.CachedDataItem;
+import gay.debuggy.staticdata.impl.ContentFingerprints;
+import gay.debuggy.staticdata.impl.OffHeapPayloadStore;
+import gay.debuggy.staticdata.impl.StaticDataIndex;
+import gay.debuggy.staticdata.impl.StaticDataLoader;
+import gay.debuggy.staticdata.impl.StaticDataProfiler;
+import gay.debuggy.staticdata.impl.ZipDataItem;
 import net.fabricmc.loader.api.FabricLoader;
-import net.fabricmc.loader.api.ModContainer;
 import net.minecraft.util.Identifier;
 
 /**
@@ -35,15 +50,6 @@
  * these, it will be ignored.
  */
 public class StaticData {
-	private static final Set<String> FORBIDDEN_CONTAINERS = Set.of( "java", "minecraft" );
-	
-	/**
-	 * I'm not aware of any *specific* thread safety issues with any of the code here, but by synchronizing all the
-	 * public methods (except getStaticDataDir), and holding no mutable state, we can be sure of its safety when
-	 * accessing it from both client and server, or from additional unknown worker threads.
-	 */
-	private static final Object GLOBAL_MUTEX = new Object();
-	
 	/**
 	 * Gets a Path to the folder in the game directory which will be searched for additional static data files provided
 	 * by the modpack.
@@ -60,44 +66,17 @@ public static Path getStaticDataDir() {
 	 * @return A list of StaticDataItems that represent the file requested.
 	 */
 	public static List<StaticDataItem> getExactData(Identifier resourceId) {
-		synchronized(GLOBAL_MUTEX) {
-			List<StaticDataItem> result = new ArrayList<>();
-			
-			for(ModContainer container : FabricLoader.getInstance().getAllMods()) {
-				if (FORBIDDEN_CONTAINERS.contains(container.getMetadata().getId())) continue;
-				
-				for(Path p : container.getRootPaths()) {
-					StaticDataImpl.addExactData(
-						container.getMetadata().getId(),
-						resourceId,
-						p.resolve("staticdata"),
-						result
-					);
-				}
-			}
-			
-			Path saticDataDir = getStaticDataDir();
-			boolean searchFiles = true;
-			if (!Files.exists(saticDataDir)) {
-				searchFiles = false;
-				try {
-					Files.createDirectory(saticDataDir);
-				} catch (IOException e) {
-					// Creating the directory is a nice-to-have but we don't really care if it fails.
-				}
-			}
-			
-			if (searchFiles) {
-				StaticDataImpl.addExactData(
-						"file",
-						resourceId,
-						getStaticDataDir(),
-						result
-						);
-			}
-			
-			return List.copyOf(result);
-		}
+		return StaticDataProfiler.profileQuery("getExactData", resourceId, () -> getIndex().getExactData(resourceId));
+	}
+	
+	/**
+	 * Checks whether any mod or pack supplies a file, without opening or listing it. This is the cheapest way to probe
+	 * for optional files, since files nobody supplies are almost always ruled out without searching any suppliers.
+	 * @param resourceId The Identifier for the file, such as "examplemod:compat/othermod.json"
+	 * @return true if {@link #getExactData(Identifier)} would return at least one item
+	 */
+	public static boolean containsData(Identifier resourceId) {
+		return StaticDataProfiler.profileQuery("containsData", resourceId, () -> getIndex().containsData(resourceId), found -> (found) ? 1 : 0);
 	}
 	
 	/**
@@ -109,45 +88,201 @@ public static List<StaticDataItem> getExactData(Identifier resourceId) {
 	 * @return A list of StaticDataItems that match the criteria specified
 	 */
 	public static List<StaticDataItem> getDataInDirectory(Identifier resourceId, boolean recursive) {
-		synchronized(GLOBAL_MUTEX) {
-			List<StaticDataItem> result = new ArrayList<>();
-			
-			for(ModContainer container : FabricLoader.getInstance().getAllMods()) {
-				if (FORBIDDEN_CONTAINERS.contains(container.getMetadata().getId())) continue;
-				
-				for(Path p : container.getRootPaths()) {
-					StaticDataImpl.addDirectoryData(
-							container.getMetadata().getId(),
-							resourceId,
-							p.resolve("staticdata"),
-							recursive,
-							result
-							);
-				}
-			}
-			
-			Path saticDataDir = getStaticDataDir();
-			boolean searchFiles = true;
-			if (!Files.exists(saticDataDir)) {
-				searchFiles = false;
-				try {
-					Files.createDirectory(saticDataDir);
-				} catch (IOException e) {
-					// Creating the directory is a nice-to-have but we don't really care if it fails.
+		return StaticDataProfiler.profileQuery((recursive) ? "getDataInDirectory(recursive)" : "getDataInDirectory", resourceId, () -> getIndex().getDataInDirectory(resourceId, recursive));
+	}
+	
+	/**
+	 * Acquires static data contained within the directory specified by the Identifier, keeping only one copy of each
+	 * file: the one listed last, following the listing order described in the README. This is what most consumers
+	 * want when later mods and packs should override earlier ones, and it's decided from file names alone, so the
+	 * copies that lose are never read.
+	 * @param resourceId The Identifier of the folder containing data you wish to retrieve
+	 * @param recursive true if subfolders within this folder should also be searched
+	 * @return A list with one StaticDataItem per file, in path order
+	 */
+	public static List<StaticDataItem> getOverlaidDataInDirectory(Identifier resourceId, boolean recursive) {
+		return getOverlaidDataInDirectory(resourceId, recursive, null);
+	}
+	
+	/**
+	 * Acquires static data contained within the directory specified by the Identifier, keeping only one copy of each
+	 * file, as {@link #getOverlaidDataInDirectory(Identifier, boolean)} does, and reports every file that was supplied
+	 * more than once.
+	 * @param resourceId The Identifier of the folder containing data you wish to retrieve
+	 * @param recursive true if subfolders within this folder should also be searched
+	 * @param listener Told about each file supplied more than once, and which copies were overridden. May be null.
+	 * @return A list with one StaticDataItem per file, in path order
+	 */
+	public static List<StaticDataItem> getOverlaidDataInDirectory(Identifier resourceId, boolean recursive, @Nullable StaticDataOverrideListener listener) {
+		return StaticDataProfiler.profileQuery((recursive) ? "getOverlaidDataInDirectory(recursive)" : "getOverlaidDataInDirectory", resourceId, () -> getIndex().getOverlaidDataInDirectory(resourceId, recursive, listener));
+	}
+	
+	/**
+	 * Acquires the static data contained within several directories at once. This is equivalent to calling
+	 * {@link #getDataInDirectory(Identifier, boolean)} once per query, but each mod and pack is only searched once for
+	 * the whole batch, which is considerably cheaper when many directories are needed at startup.
+	 * @param queries The folders you wish to retrieve data from
+	 * @return One list of StaticDataItems per query, in the same order as the queries
+	 */
+	public static List<List<StaticDataItem>> getDataInDirectories(List<DirectoryQuery> queries) {
+		return StaticDataProfiler.profileQuery("getDataInDirectories", queries, () -> getIndex().getDataInDirectories(queries), results -> results.stream().mapToInt(List::size).sum());
+	}
+	
+	/**
+	 * Lazily lists the static data contained within the directory specified by the Identifier, in the same order as
+	 * {@link #getDataInDirectory(Identifier, boolean)}. Items are created only as the stream reaches them and are not
+	 * held on to afterwards, so large directories can be processed one file at a time without ever holding the full
+	 * list. Short-circuiting operations such as {@code takeWhile} or {@code findFirst} stop the listing early.
+	 * @param resourceId The Identifier of the folder containing data you wish to retrieve
+	 * @param recursive true if subfolders within this folder should also be searched
+	 * @return A sequential Stream of StaticDataItems that match the criteria specified
+	 */
+	public static Stream<StaticDataItem> streamDataInDirectory(Identifier resourceId, boolean recursive) {
+		return StaticDataProfiler.profileStream((recursive) ? "streamDataInDirectory(recursive)" : "streamDataInDirectory", resourceId, () -> getIndex().streamDataInDirectory(resourceId, recursive));
+	}
+	
+	/**
+	 * Visits each piece of static data contained within the directory specified by the Identifier, in the same order as
+	 * {@link #getDataInDirectory(Identifier, boolean)}, without building a list of the results.
+	 * @param resourceId The Identifier of the folder containing data you wish to retrieve
+	 * @param recursive true if subfolders within this folder should also be searched
+	 * @param visitor called once for each StaticDataItem that matches the criteria specified
+	 * @see #streamDataInDirectory(Identifier, boolean)
+	 */
+	public static void forEachInDirectory(Identifier resourceId, boolean recursive, Consumer<StaticDataItem> visitor) {
+		try (Stream<StaticDataItem> items = StaticDataProfiler.profileStream((recursive) ? "forEachInDirectory(recursive)" : "forEachInDirectory", resourceId, () -> getIndex().streamDataInDirectory(resourceId, recursive))) {
+			items.forEachOrdered(visitor);
+		}
+	}
+	
+	/**
+	 * Gets a single fingerprint for everything a {@link #getDataInDirectory(Identifier, boolean)} query would return.
+	 * It changes whenever any file's data changes, or when files are added, removed or renamed, so a mod can cache
+	 * whatever it derives from a whole directory across launches and regenerate it only when this changes.
+	 * @param resourceId The Identifier of the folder containing the data
+	 * @param recursive true if subfolders within this folder should also be included
+	 * @return a 64-bit fingerprint of the folder's contents
+	 * @throws IOException if a file's fingerprint couldn't be found
+	 * @see StaticDataItem#getContentFingerprint()
+	 */
+	public static long getDirectoryFingerprint(Identifier resourceId, boolean recursive) throws IOException {
+		try (Stream<StaticDataItem> items = StaticDataProfiler.profileStream((recursive) ? "getDirectoryFingerprint(recursive)" : "getDirectoryFingerprint", resourceId, () -> getIndex().streamDataInDirectory(resourceId, recursive))) {
+			return ContentFingerprints.combine(items::iterator);
+		}
+	}
+	
+	/**
+	 * Acquires static data selected by a glob pattern, such as "mymod:blocks/**&#47;*.json", or "*:compat/mymod/*.json"
+	 * to search every namespace. Matching only looks at file names, so files that don't match are never opened. Results
+	 * are in the same order as {@link #getDataInDirectory(Identifier, boolean)}.
+	 * @param pattern The compiled pattern selecting the files you wish to retrieve
+	 * @return A list of StaticDataItems that match the pattern
+	 * @see StaticDataPattern
+	 */
+	public static List<StaticDataItem> getDataMatching(StaticDataPattern pattern) {
+		return StaticDataProfiler.profileQuery("getDataMatching", pattern, () -> getIndex().streamMatchingData(pattern).toList());
+	}
+	
+	/**
+	 * Lazily lists the static data selected by a glob pattern, in the same order as
+	 * {@link #getDataMatching(StaticDataPattern)}. Items are created only as the stream reaches them.
+	 * @param pattern The compiled pattern selecting the files you wish to retrieve
+	 * @return A sequential Stream of StaticDataItems that match the pattern
+	 */
+	public static Stream<StaticDataItem> streamDataMatching(StaticDataPattern pattern) {
+		return StaticDataProfiler.profileStream("streamDataMatching", pattern, () -> getIndex().streamMatchingData(pattern));
+	}
+	
+	/**
+	 * Decodes every JSON file within a directory with a Codec, spreading the work across threads. This is equivalent to
+	 * calling {@link #getDataInDirectory(Identifier, boolean)} and parsing each item, but decoded values are remembered:
+	 * when several mods decode the same directory with the same Codec, each file is only parsed once.
+	 * 
+	 * <p>Because decoded values are shared, they MUST be treated as immutable. They're also kept in memory for as long
+	 * as the game runs, so if you only decode a directory once and don't keep what you decoded, use
+	 * {@link #decodeDataInDirectory(Identifier, boolean, Codec, boolean)} to let them be collected.
+	 * @param resourceId The Identifier of the folder containing data you wish to decode
+	 * @param recursive true if subfolders within this folder should also be searched
+	 * @param codec The Codec to decode each file with
+	 * @return One result per file, in the same order as getDataInDirectory. Files that couldn't be read, parsed or
+	 *         decoded have an error result.
+	 */
+	public static <T> List<DecodedStaticData<T>> decodeDataInDirectory(Identifier resourceId, boolean recursive, Codec<T> codec) {
+		return decodeDataInDirectory(resourceId, recursive, codec, true);
+	}
+	
+	/**
+	 * Decodes every JSON file within a directory with a Codec, spreading the work across threads, and choosing whether
+	 * the decoded values are remembered.
+	 * @param resourceId The Identifier of the folder containing data you wish to decode
+	 * @param recursive true if subfolders within this folder should also be searched
+	 * @param codec The Codec to decode each file with
+	 * @param remember true to remember and share decoded values as {@link #decodeDataInDirectory(Identifier, boolean, Codec)}
+	 *                 does; false to decode every file afresh and remember nothing. Values other mods had already
+	 *                 remembered are still shared either way, and MUST be treated as immutable.
+	 * @return One result per file, in the same order as getDataInDirectory. Files that couldn't be read, parsed or
+	 *         decoded have an error result.
+	 */
+	public static <T> List<DecodedStaticData<T>> decodeDataInDirectory(Identifier resourceId, boolean recursive, Codec<T> codec, boolean remember) {
+		return StaticDataProfiler.profileQuery((recursive) ? "decodeDataInDirectory(recursive)" : "decodeDataInDirectory", resourceId, () -> {
+			StaticDataIndex index = getIndex();
+			return index.decode(index.getDataInDirectory(resourceId, recursive), codec, remember);
+		}, List::size);
+	}
+	
+	/**
+	 * Registers a listener to be told which static data has changed. Static data only ever changes in development mode,
+	 * enabled with {@code -Dstaticdata.devMode=true}, when files in the {@link #getStaticDataDir() staticdata folder}
+	 * are edited; tools can use this to reload just the data that changed instead of everything.
+	 * @param listener The listener to call after each change
+	 */
+	public static void addChangeListener(StaticDataChangeListener listener) {
+		StaticDataLoader.addChangeListener(listener);
+	}
+	
+	/**
+	 * Unregisters a listener added by {@link #addChangeListener(StaticDataChangeListener)}.
+	 * @param listener The listener to remove
+	 */
+	public static void removeChangeListener(StaticDataChangeListener listener) {
+		StaticDataLoader.removeChangeListener(listener);
+	}
+	
+	/**
+	 * Starts loading the given files into memory in the background, for mods that know early on which data they'll
+	 * need. This is equivalent to calling {@link #getExactData(Identifier)} for each Identifier and reading every item,
+	 * but it doesn't block the calling thread. Identical data supplied by several mods or packs is only held once. If
+	 * an off-heap budget is set, data from packs is loaded into off-heap memory instead, and may be read from its pack
+	 * again if it's evicted.
+	 * @param resourceIds The Identifiers of the files you wish to retrieve
+	 * @return A future holding the data for each Identifier, in the order given, as items whose contents are already
+	 *         in memory. It completes exceptionally if any of the data can't be read.
+	 */
+	public static CompletableFuture<Map<Identifier, List<StaticDataItem>>> prefetch(Collection<Identifier> resourceIds) {
+		List<Identifier> requested = List.copyOf(resourceIds);
+		
+		// Measured on the thread doing the work, so the report shows the cost of loading the data and not just starting to
+		return CompletableFuture.supplyAsync(() -> StaticDataProfiler.profileQuery("prefetch", requested, () -> {
+			StaticDataIndex index = getIndex();
+			Map<Identifier, List<StaticDataItem>> result = new LinkedHashMap<>();
+			for(Identifier resourceId : requested) {
+				List<StaticDataItem> items = new ArrayList<>();
+				for(StaticDataItem item : index.getExactData(resourceId)) {
+					try {
+						// With an off-heap budget, pack data is held in the off-heap store rather than on the heap
+						items.add((item instanceof ZipDataItem zipItem && OffHeapPayloadStore.isEnabled()) ? zipItem.preload() : CachedDataItem.copyOf(item));
+					} catch (IOException e) {
+						throw new UncheckedIOException("Couldn't prefetch staticdata file \""+resourceId+"\" supplied by "+item.getModId(), e);
+					}
 				}
+				result.put(resourceId, List.copyOf(items));
 			}
 			
-			if (searchFiles) {
-				StaticDataImpl.addDirectoryData(
-						"file",
-						resourceId,
-						getStaticDataDir(),
-						recursive,
-						result
-						);
-			}
-			
-			return List.copyOf(result);
-		}
+			return Collections.unmodifiableMap(result);
+		}, results -> results.values().stream().mapToInt(List::size).sum()));
+	}
+	
+	private static StaticDataIndex getIndex() {
+		return StaticDataLoader.getIndex();
 	}
 }
@@ -0,0 +1,23 @@
+package gay.debuggy.staticdata.api;
+
+import java.util.Set;
+
+import net.minecraft.util.Identifier;
+
+/**
+ * Notified when static data changes while StaticData is in development mode. Outside of development mode static data
+ * never changes, and listeners are never called.
+ * 
+ * @see StaticData#addChangeListener(StaticDataChangeListener)
+ */
+@FunctionalInterface
+public interface StaticDataChangeListener {
+	/**
+	 * Called after files in the staticdata folder have been added, removed or modified. By the time this is called,
+	 * every StaticData query already sees the new data, so listeners only need to re-query the Identifiers given.
+	 * 
+	 * <p>Listeners are called from a background thread, one change at a time.
+	 * @param changedIds The Identifier of every file whose data was added, removed or modified
+	 */
+	void onStaticDataChanged(Set<Identifier> changedIds);
+}
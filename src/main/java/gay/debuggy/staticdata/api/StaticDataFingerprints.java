@@ -0,0 +1,57 @@
+package gay.debuggy.staticdata.api;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+
+/**
+ * Calculates content fingerprints, as returned by {@link StaticDataItem#getContentFingerprint()}: the first 64 bits of
+ * the data's SHA-256 hash. If you implement StaticDataItem yourself, fingerprint your data with these so that it agrees
+ * with the fingerprint of identical data from anywhere else.
+ */
+public final class StaticDataFingerprints {
+	private StaticDataFingerprints() {}
+	
+	public static long of(byte[] data) {
+		MessageDigest digest = newDigest();
+		digest.update(data);
+		return toFingerprint(digest);
+	}
+	
+	/**
+	 * Finds the fingerprint of the data remaining in a buffer, without moving its position.
+	 */
+	public static long of(ByteBuffer data) {
+		MessageDigest digest = newDigest();
+		digest.update(data.duplicate());
+		return toFingerprint(digest);
+	}
+	
+	/**
+	 * Reads a stream to the end, and finds the fingerprint of everything that was read. The stream is not closed.
+	 */
+	public static long of(InputStream in) throws IOException {
+		MessageDigest digest = newDigest();
+		byte[] buf = new byte[8192];
+		int read;
+		while((read = in.read(buf)) != -1) {
+			digest.update(buf, 0, read);
+		}
+		
+		return toFingerprint(digest);
+	}
+	
+	private static MessageDigest newDigest() {
+		try {
+			return MessageDigest.getInstance("SHA-256");
+		} catch (NoSuchAlgorithmException e) {
+			throw new IllegalStateException("Every Java platform is required to support SHA-256.", e);
+		}
+	}
+	
+	private static long toFingerprint(MessageDigest digest) {
+		return ByteBuffer.wrap(digest.digest()).getLong();
+	}
+}
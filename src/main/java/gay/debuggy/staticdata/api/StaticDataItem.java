@@ -4,9 +4,12 @@
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.InputStreamReader;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
 import java.nio.charset.StandardCharsets;
 import java.util.List;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 import net.minecraft.util.Identifier;
 
@@ -46,18 +49,70 @@ public interface StaticDataItem {
 	 * @throws IOException if there was an error reading in the data
 	 */
 	public default byte[] getAsBytes() throws IOException {
-		return getAsStream().readAllBytes();
+		try (InputStream in = getAsStream()) {
+			return in.readAllBytes();
+		}
 	};
 	
+	/**
+	 * Gets this static data item as a read-only ByteBuffer. Implementations avoid copying the data where they can - for
+	 * example, large files may be memory-mapped - so this is the preferred way to hand static data to parsers or
+	 * native code that accept buffers.
+	 * @return a read-only ByteBuffer, positioned at the start of the static data
+	 * @throws IOException if there was an error reading in the data
+	 */
+	public default ByteBuffer getAsByteBuffer() throws IOException {
+		return ByteBuffer.wrap(getAsBytes()).asReadOnlyBuffer();
+	}
+	
 	/**
 	 * Gets this static data item as UTF-8 character data, as a List of lines
 	 * @return the List of lines of static data
 	 * @throws IOException if there was an error reading in the data
 	 */
 	public default List<String> getAsLines() throws IOException {
-		return new BufferedReader(new InputStreamReader(getAsStream(), StandardCharsets.UTF_8))
-				.lines()
-				.collect(Collectors.toList());
+		try (Stream<String> lines = streamLines()) {
+			return lines.collect(Collectors.toList());
+		} catch (UncheckedIOException e) {
+			throw e.getCause();
+		}
+	}
+	
+	/**
+	 * Lazily reads this static data item as UTF-8 character data, one line at a time. Data is decoded as the stream
+	 * is consumed, using a small fixed-size buffer, so this works for data of any size - including data far too large
+	 * to fit in a byte array or String.
+	 * 
+	 * <p>The returned stream holds the data open, and MUST be closed, e.g. with try-with-resources. Errors that occur
+	 * while reading are thrown from the stream as UncheckedIOException.
+	 * @return a sequential Stream of the lines of static data
+	 * @throws IOException if there was an error opening the data
+	 */
+	public default Stream<String> streamLines() throws IOException {
+		BufferedReader reader = new BufferedReader(new InputStreamReader(getAsStream(), StandardCharsets.UTF_8));
+		return reader.lines().onClose(() -> {
+			try {
+				reader.close();
+			} catch (IOException e) {
+				throw new UncheckedIOException(e);
+			}
+		});
+	}
+	
+	/**
+	 * Gets a fingerprint of this item's contents, for deciding whether anything derived from it needs regenerating.
+	 * The fingerprint only depends on the data itself, so it is the same across launches, and for identical data from
+	 * any supplier. It is calculated by {@link StaticDataFingerprints}, from a 64-bit cut of the data's SHA-256 hash.
+	 * 
+	 * <p>The data is read the first time its fingerprint is asked for. After that, data from packs isn't read again
+	 * while the pack is open, and raw files are only read again after they change.
+	 * @return the content fingerprint
+	 * @throws IOException if there was an error reading in the data
+	 */
+	public default long getContentFingerprint() throws IOException {
+		try (InputStream in = getAsStream()) {
+			return StaticDataFingerprints.of(in);
+		}
 	}
 	
 	/**
@@ -66,6 +121,6 @@ public default List<String> getAsLines() throws IOException {
 	 * @throws IOException if there was an error reading in the data
 	 */
 	public default String getAsString() throws IOException {
-		return new String(getAsStream().readAllBytes(), StandardCharsets.UTF_8);
+		return new String(getAsBytes(), StandardCharsets.UTF_8);
 	};
 }
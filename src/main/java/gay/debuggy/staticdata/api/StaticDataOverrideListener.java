@@ -0,0 +1,18 @@
+package gay.debuggy.staticdata.api;
+
+import java.util.List;
+
+/**
+ * Told which copies of a file lost out in an overlaid query, for diagnosing which mods and packs override each other.
+ * 
+ * @see StaticData#getOverlaidDataInDirectory(net.minecraft.util.Identifier, boolean, StaticDataOverrideListener)
+ */
+@FunctionalInterface
+public interface StaticDataOverrideListener {
+	/**
+	 * Called once for each file supplied more than once, on the thread that made the query, before it returns.
+	 * @param winner The copy that was returned
+	 * @param overridden Every other copy, in listing order. None of them have been read.
+	 */
+	void onOverridden(StaticDataItem winner, List<StaticDataItem> overridden);
+}
@@ -0,0 +1,140 @@
+package gay.debuggy.staticdata.api;
+
+import java.util.regex.Pattern;
+
+import org.jetbrains.annotations.Nullable;
+
+import net.minecraft.util.Identifier;
+
+/**
+ * A compiled glob pattern that selects static data files by their Identifier, such as {@code mymod:blocks/**&#47;*.json}
+ * or {@code *:compat/mymod/*.json}.
+ *
+ * <p>Patterns are written as "namespace:path". Within either part:
+ *
+ * <ul>
+ *   <li>{@code *} matches any run of characters within a single folder or file name
+ *   <li>{@code ?} matches any single character except a slash
+ *   <li>{@code **} matches any number of folders, including none at all, e.g. {@code blocks/**&#47;*.json} matches both
+ *       {@code blocks/oak.json} and {@code blocks/trees/oak.json}
+ * </ul>
+ *
+ * <p>A namespace of {@code *} searches the data for every consumer. Patterns are immutable and may be compiled once and
+ * reused from any thread.
+ */
+public final class StaticDataPattern {
+	private final String pattern;
+	private final @Nullable String literalNamespace;
+	private final String literalPrefix;
+	private final Pattern namespaceRegex;
+	private final Pattern pathRegex;
+	
+	private StaticDataPattern(String pattern, String namespaceGlob, String pathGlob) {
+		this.pattern = pattern;
+		this.literalNamespace = (hasWildcards(namespaceGlob)) ? null : namespaceGlob;
+		this.namespaceRegex = Pattern.compile(toRegex(namespaceGlob));
+		this.pathRegex = Pattern.compile(toRegex(pathGlob));
+		
+		// The folders before the first wildcard are the same for every match
+		String literalPart = pathGlob;
+		for(int i=0; i<pathGlob.length(); i++) {
+			if (pathGlob.charAt(i) == '*' || pathGlob.charAt(i) == '?') {
+				literalPart = pathGlob.substring(0, i);
+				break;
+			}
+		}
+		this.literalPrefix = literalPart.substring(0, literalPart.lastIndexOf('/') + 1);
+	}
+	
+	/**
+	 * Compiles a glob pattern.
+	 * @param pattern the pattern, in the form "namespace:path", e.g. "mymod:blocks/**&#47;*.json"
+	 * @return the compiled pattern
+	 * @throws IllegalArgumentException if the pattern has no namespace
+	 */
+	public static StaticDataPattern compile(String pattern) {
+		int separator = pattern.indexOf(':');
+		if (separator <= 0) throw new IllegalArgumentException("Static data pattern \""+pattern+"\" must be in the form \"namespace:path\"");
+		
+		String path = pattern.substring(separator + 1);
+		if (path.startsWith("/")) path = path.substring(1);
+		
+		return new StaticDataPattern(pattern, pattern.substring(0, separator), path);
+	}
+	
+	/**
+	 * Gets the namespace this pattern is limited to.
+	 * @return the namespace, or null if this pattern can match more than one namespace
+	 */
+	public @Nullable String getLiteralNamespace() {
+		return literalNamespace;
+	}
+	
+	/**
+	 * Gets the folders which every path matched by this pattern starts with. For {@code mymod:blocks/**&#47;*.json}, this
+	 * is "blocks/". For a pattern that starts with a wildcard, this is the empty string.
+	 * @return the common folder prefix, which is either empty or ends in a slash
+	 */
+	public String getLiteralPrefix() {
+		return literalPrefix;
+	}
+	
+	public boolean matches(Identifier resourceId) {
+		return matches(resourceId.getNamespace(), resourceId.getPath());
+	}
+	
+	public boolean matches(String namespace, String path) {
+		if (literalNamespace != null) {
+			if (!literalNamespace.equals(namespace)) return false;
+		} else if (!namespaceRegex.matcher(namespace).matches()) {
+			return false;
+		}
+		
+		return pathRegex.matcher(path).matches();
+	}
+	
+	private static boolean hasWildcards(String glob) {
+		return glob.indexOf('*') != -1 || glob.indexOf('?') != -1;
+	}
+	
+	private static String toRegex(String glob) {
+		StringBuilder result = new StringBuilder();
+		int i = 0;
+		while (i < glob.length()) {
+			char ch = glob.charAt(i);
+			if (glob.startsWith("**/", i)) {
+				result.append("(?:.*/)?");
+				i += 3;
+			} else if (glob.startsWith("**", i)) {
+				result.append(".*");
+				i += 2;
+			} else if (ch == '*') {
+				result.append("[^/]*");
+				i++;
+			} else if (ch == '?') {
+				result.append("[^/]");
+				i++;
+			} else {
+				result.append(Pattern.quote(String.valueOf(ch)));
+				i++;
+			}
+		}
+		
+		return result.toString();
+	}
+	
+	@Override
+	public boolean equals(Object obj) {
+		return obj instanceof StaticDataPattern other && other.pattern.equals(pattern);
+	}
+	
+	@Override
+	public int hashCode() {
+		return pattern.hashCode();
+	}
+	
+	@Override
+	public String toString() {
+		return pattern;
+	}
+}
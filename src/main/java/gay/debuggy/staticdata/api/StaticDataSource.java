@@ -0,0 +1,68 @@
+package gay.debuggy.staticdata.api;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Path;
+import java.util.Set;
+import java.util.function.Consumer;
+
+import org.jetbrains.annotations.Nullable;
+
+import net.minecraft.util.Identifier;
+
+/**
+ * Supplies static data from somewhere other than a staticdata root - an in-memory table, a generated manifest, a
+ * remote cache. Sources are listed once, when StaticData builds its index, and every entry they list is served just
+ * like a file in a staticdata root. Staticdata packs and folders are sources too.
+ * 
+ * <p>Like StaticDataItem, a source MUST NOT change what it supplies once it has been listed.
+ * 
+ * @see StaticDataSourceProvider
+ */
+public interface StaticDataSource {
+	
+	/**
+	 * Things a source can do which let StaticData pick a faster way of using it.
+	 */
+	public enum Capability {
+		/**
+		 * The source lists its entries from an index it already holds in memory, without searching for them, so it's
+		 * listed right away rather than being handed to a scan thread.
+		 */
+		INDEXED,
+		/**
+		 * Any entry may be opened at any time, from any thread. Sources without this are read in full while they're
+		 * listed, opening each entry once, in listing order, and their data is held in memory from then on.
+		 */
+		RANDOM_ACCESS
+	}
+	
+	/**
+	 * @return the things this source can do
+	 */
+	public Set<Capability> getCapabilities();
+	
+	/**
+	 * Lists the Identifier of every entry this source supplies, in any order. Entries listed more than once are only
+	 * supplied once.
+	 * @param consumer receives each Identifier
+	 * @throws IOException if the entries could not be listed
+	 */
+	public void forEachEntry(Consumer<Identifier> consumer) throws IOException;
+	
+	/**
+	 * Opens the data of one of this source's entries.
+	 * @param resourceId an Identifier listed by {@link #forEachEntry(Consumer)}
+	 * @return an InputStream at the start of the entry's data
+	 * @throws IOException if the entry could not be opened
+	 */
+	public InputStream open(Identifier resourceId) throws IOException;
+	
+	/**
+	 * Gets the file or folder the data comes from, if there is one, for reporting problems.
+	 * @return the location of the source, or null if it doesn't live on a filesystem
+	 */
+	public default @Nullable Path getLocation() {
+		return null;
+	}
+}
@@ -0,0 +1,18 @@
+package gay.debuggy.staticdata.api;
+
+import java.util.List;
+
+/**
+ * Registers extra {@link StaticDataSource}s. Declare an implementation as a "staticdata" entrypoint in your
+ * fabric.mod.json, and the data from its sources will be credited to your mod.
+ * 
+ * <p>Providers are called once, as StaticData builds its index on the first query for static data. That may be on a
+ * background thread, and may be before your mod, or any other, has initialized.
+ */
+@FunctionalInterface
+public interface StaticDataSourceProvider {
+	/**
+	 * @return the sources to list, in listing order
+	 */
+	List<StaticDataSource> getSources();
+}
@@ -1,5 +1,7 @@
 package gay.debuggy.staticdata.impl;
 
+import java.io.IOException;
+
 import gay.debuggy.staticdata.api.StaticDataItem;
 import net.minecraft.util.Identifier;
 
@@ -21,5 +23,15 @@ public String getModId() {
 	public Identifier getResourceId() {
 		return resourceId;
 	}
+	
+	/**
+	 * Gets this item's data as an array which may be shared with other items holding identical data. Callers MUST NOT
+	 * modify the returned array; use {@link #getAsBytes()} for a private copy.
+	 * @return the data, possibly shared through {@link PayloadStore}
+	 * @throws IOException if there was an error reading in the data
+	 */
+	protected byte[] getSharedBytes() throws IOException {
+		return getAsBytes();
+	}
 
 }
@@ -0,0 +1,42 @@
+package gay.debuggy.staticdata.impl;
+
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+
+/**
+ * Reads the remaining contents of a ByteBuffer, advancing its position. The buffer should be a private duplicate.
+ */
+public class ByteBufferInputStream extends InputStream {
+	private final ByteBuffer data;
+	
+	public ByteBufferInputStream(ByteBuffer data) {
+		this.data = data;
+	}
+	
+	@Override
+	public int read() {
+		return (data.hasRemaining()) ? Byte.toUnsignedInt(data.get()) : -1;
+	}
+	
+	@Override
+	public int read(byte[] b, int off, int len) {
+		if (len == 0) return 0;
+		if (!data.hasRemaining()) return -1;
+		
+		int read = Math.min(len, data.remaining());
+		data.get(b, off, read);
+		return read;
+	}
+	
+	@Override
+	public long skip(long n) {
+		int skipped = (int) Math.max(0, Math.min(n, data.remaining()));
+		data.position(data.position() + skipped);
+		return skipped;
+	}
+	
+	@Override
+	public int available() {
+		return data.remaining();
+	}
+}
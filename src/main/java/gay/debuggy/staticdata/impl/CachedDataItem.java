@@ -3,19 +3,37 @@
 import java.io.ByteArrayInputStream;
 import java.io.IOException;
 import java.io.InputStream;
+import java.nio.ByteBuffer;
 import java.nio.charset.StandardCharsets;
 import java.util.Arrays;
 
+import gay.debuggy.staticdata.api.StaticDataFingerprints;
+import gay.debuggy.staticdata.api.StaticDataItem;
 import net.minecraft.util.Identifier;
 
 public class CachedDataItem extends AbstractDataItem {
 	private final byte[] data;
+	private volatile Long fingerprint = null;
 	
 	public CachedDataItem(String modId, Identifier resourceId, byte[] data) {
 		super(modId, resourceId);
 		this.data = data;
 	}
-
+	
+	/**
+	 * Reads another item's data into memory. Data read from packs is shared with any other cached item holding
+	 * identical data, as is data from raw files if {@link StaticDataConfig#DEDUPLICATE_LOOSE_FILES} is set.
+	 * @param item the item to read
+	 * @return a CachedDataItem with the same modId, resourceId and data as item
+	 * @throws IOException if there was an error reading in the data
+	 */
+	public static CachedDataItem copyOf(StaticDataItem item) throws IOException {
+		if (item instanceof CachedDataItem cached) return cached;
+		
+		byte[] data = (item instanceof AbstractDataItem abstractItem) ? abstractItem.getSharedBytes() : item.getAsBytes();
+		return new CachedDataItem(item.getModId(), item.getResourceId(), data);
+	}
+	
 	@Override
 	public InputStream getAsStream() throws IOException {
 		return new ByteArrayInputStream(data);
@@ -26,6 +44,18 @@ public byte[] getAsBytes() throws IOException {
 		return Arrays.copyOf(data, data.length); //Defensive copy to keep the class immutable
 	}
 	
+	@Override
+	public ByteBuffer getAsByteBuffer() throws IOException {
+		return ByteBuffer.wrap(data).asReadOnlyBuffer(); //Read-only view, so no copy is needed to keep the class immutable
+	}
+	
+	@Override
+	public long getContentFingerprint() {
+		Long result = fingerprint;
+		if (result == null) fingerprint = result = StaticDataFingerprints.of(data);
+		return result;
+	}
+	
 	@Override
 	public String getAsString() throws IOException {
 		return new String(data, StandardCharsets.UTF_8);
@@ -0,0 +1,90 @@
+package gay.debuggy.staticdata.impl;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import gay.debuggy.staticdata.api.StaticDataFingerprints;
+import gay.debuggy.staticdata.api.StaticDataItem;
+
+/**
+ * Remembers the {@link StaticDataItem#getContentFingerprint() content fingerprints} of raw files until the files
+ * change, and combines the fingerprints of many items into one. Pack entries' fingerprints are remembered by their
+ * packs instead.
+ */
+public class ContentFingerprints {
+	private static final long FNV_OFFSET_BASIS = 0xcbf29ce484222325L;
+	private static final long FNV_PRIME = 0x100000001b3L;
+	
+	private record FileFingerprint(long size, long lastModified, long fingerprint) {}
+	
+	private static final Map<Path, FileFingerprint> FILES = new ConcurrentHashMap<>();
+	
+	/**
+	 * Finds the fingerprint of a file, reading it only if its size or modification time has changed since its
+	 * fingerprint was last found.
+	 */
+	public static long ofFile(Path path) throws IOException {
+		BasicFileAttributes attributes;
+		try {
+			attributes = Files.readAttributes(path, BasicFileAttributes.class);
+		} catch (NoSuchFileException e) {
+			FILES.remove(path);
+			throw e;
+		}
+		long lastModified = attributes.lastModifiedTime().toMillis();
+		
+		FileFingerprint known = FILES.get(path);
+		if (known != null && known.size() == attributes.size() && known.lastModified() == lastModified) return known.fingerprint();
+		
+		long fingerprint;
+		try (InputStream in = Files.newInputStream(path)) {
+			fingerprint = StaticDataFingerprints.of(in);
+		}
+		FILES.put(path, new FileFingerprint(attributes.size(), lastModified, fingerprint));
+		return fingerprint;
+	}
+	
+	/**
+	 * Forgets the remembered fingerprints of a file, or of every file inside a folder, because they've changed or been
+	 * deleted. Without this, fingerprints of files that are gone would be remembered for as long as the game runs.
+	 * @param path the file or folder to forget
+	 */
+	public static void forget(Path path) {
+		FILES.keySet().removeIf(file -> file.startsWith(path));
+	}
+	
+	/**
+	 * Combines the fingerprints of several items into one. The result changes if any item's data changes, or if items
+	 * are added, removed, renamed, reordered, or supplied by a different mod.
+	 * @param items the items to combine, in order
+	 * @return a 64-bit FNV-1a hash of each item's modId, Identifier and content fingerprint
+	 * @throws IOException if an item's fingerprint couldn't be found
+	 */
+	public static long combine(Iterable<StaticDataItem> items) throws IOException {
+		long hash = FNV_OFFSET_BASIS;
+		for(StaticDataItem item : items) {
+			hash = mix(hash, item.getModId()+"\0"+item.getResourceId()+"\0");
+			long fingerprint = item.getContentFingerprint();
+			for(int i=0; i<8; i++) {
+				hash = (hash ^ ((fingerprint >>> (i * 8)) & 0xFF)) * FNV_PRIME;
+			}
+		}
+		
+		return hash;
+	}
+	
+	private static long mix(long hash, String value) {
+		for(byte b : value.getBytes(StandardCharsets.UTF_8)) {
+			hash = (hash ^ (b & 0xFF)) * FNV_PRIME;
+		}
+		
+		return hash;
+	}
+}
@@ -0,0 +1,11 @@
+package gay.debuggy.staticdata.impl;
+
+import gay.debuggy.staticdata.api.StaticDataSource;
+
+/**
+ * A StaticDataSource along with the modId its data will be credited to.
+ * @param modId the modId of the mod which registered the source
+ * @param source the source itself
+ */
+public record CreditedSource(String modId, StaticDataSource source) {
+}
@@ -0,0 +1,44 @@
+package gay.debuggy.staticdata.impl;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Picks out the staticdata entries of a staticdata pack straight from the raw names in its zip central directory, so
+ * that entries which aren't staticdata - directories, classes, assets - are skipped without ever decoding their names.
+ * 
+ * <p>Accepts exactly the entries that {@link StaticDataImpl#toPartialPath(String)} finds a partial path for, except
+ * directory entries, which hold no data.
+ */
+public class EntryNameMatcher implements ZipPack.NameFilter {
+	private static final byte[] ROOT = "staticdata".getBytes(StandardCharsets.UTF_8);
+	private static final EntryNameMatcher STATIC_DATA = new EntryNameMatcher();
+	
+	private EntryNameMatcher() {}
+	
+	/**
+	 * Gets a matcher for every file inside a pack's staticdata folder.
+	 */
+	public static EntryNameMatcher staticData() {
+		return STATIC_DATA;
+	}
+	
+	@Override
+	public boolean accepts(ByteBuffer names, int offset, int length) {
+		int pos = offset;
+		int end = offset + length;
+		if (length == 0 || names.get(end - 1) == '/') return false; // Directory entries hold no data
+		
+		// "[/]staticdata/", with either kind of slash
+		if (isSlash(names.get(pos))) pos++;
+		if (end - pos <= ROOT.length + 1) return false;
+		for(int i=0; i<ROOT.length; i++) {
+			if (names.get(pos++) != ROOT[i]) return false;
+		}
+		return isSlash(names.get(pos));
+	}
+	
+	private static boolean isSlash(byte b) {
+		return b == '/' || b == '\\';
+	}
+}
@@ -0,0 +1,91 @@
+package gay.debuggy.staticdata.impl;
+
+import java.util.Collection;
+import java.util.function.Consumer;
+
+/**
+ * A Bloom filter over "namespace/path" index keys. It never answers false for a key it was built with, and answers true
+ * for about 1% of the keys it wasn't, so most lookups for missing data can be answered without searching any listings.
+ * 
+ * <p>Instances are never modified after construction, so they may be shared freely between threads.
+ */
+public class KeyFilter {
+	private static final int BITS_PER_KEY = 10;
+	private static final int HASH_COUNT = 7;
+	
+	private final long[] bits;
+	
+	private KeyFilter(int keyCount) {
+		this.bits = new long[Math.max(1, (int) Math.min((long) keyCount * BITS_PER_KEY / 64 + 1, Integer.MAX_VALUE - 8))];
+	}
+	
+	/**
+	 * Builds a filter holding every key supplied.
+	 * @param keyCount the number of keys that keys will supply
+	 * @param keys supplies each key to the consumer it's given
+	 */
+	public static KeyFilter of(int keyCount, Consumer<Consumer<String>> keys) {
+		KeyFilter result = new KeyFilter(keyCount);
+		keys.accept(key -> result.add(hash(key)));
+		return result;
+	}
+	
+	/**
+	 * Builds a filter holding every key supplied by any of the suppliers.
+	 */
+	public static KeyFilter of(Collection<SupplierIndex<?>> suppliers) {
+		int keyCount = 0;
+		for(SupplierIndex<?> supplier : suppliers) keyCount += supplier.size();
+		
+		return of(keyCount, consumer -> {
+			for(SupplierIndex<?> supplier : suppliers) supplier.forEachKey(consumer);
+		});
+	}
+	
+	/**
+	 * Hashes a key for {@link #mightContain(long)}, so that a key checked against several filters is only hashed once.
+	 * @param key the "namespace/path" index key
+	 * @return a 64-bit hash of the key
+	 */
+	public static long hash(String key) {
+		// FNV-1a over the chars, then the murmur3 finalizer to spread the bits out
+		long h = 0xcbf29ce484222325L;
+		for(int i=0; i<key.length(); i++) {
+			h ^= key.charAt(i);
+			h *= 0x100000001b3L;
+		}
+		
+		h ^= h >>> 33;
+		h *= 0xff51afd7ed558ccdL;
+		h ^= h >>> 33;
+		h *= 0xc4ceb9fe1a85ec53L;
+		h ^= h >>> 33;
+		return h;
+	}
+	
+	private void add(long hash) {
+		long bitCount = (long) bits.length * 64;
+		int h1 = (int) hash;
+		int h2 = (int) (hash >>> 32);
+		for(int i=0; i<HASH_COUNT; i++) {
+			long bit = Integer.toUnsignedLong(h1 + i * h2) % bitCount;
+			bits[(int) (bit >>> 6)] |= 1L << bit;
+		}
+	}
+	
+	/**
+	 * @param hash the key's {@link #hash(String)}
+	 * @return false if the key is definitely absent, or true if it may be present
+	 */
+	public boolean mightContain(long hash) {
+		long bitCount = (long) bits.length * 64;
+		int h1 = (int) hash;
+		int h2 = (int) (hash >>> 32);
+		for(int i=0; i<HASH_COUNT; i++) {
+			long bit = Integer.toUnsignedLong(h1 + i * h2) % bitCount;
+			if ((bits[(int) (bit >>> 6)] & (1L << bit)) == 0) return false;
+		}
+		
+		return true;
+	}
+}
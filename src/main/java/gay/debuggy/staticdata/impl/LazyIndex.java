@@ -0,0 +1,93 @@
+package gay.debuggy.staticdata.impl;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.function.Supplier;
+
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * Holds an index which is built the first time it's needed. However many threads ask for it at once, only one of them
+ * runs the scan, and the rest wait for its result. Once it's published, reading it takes no locks at all.
+ */
+public class LazyIndex {
+	private final Supplier<StaticDataIndex> scanner;
+	
+	/**
+	 * The published index. It's immutable, so once it's published here any number of threads can query it at once.
+	 */
+	private volatile @Nullable StaticDataIndex index = null;
+	
+	/**
+	 * The scan that will produce the index, once one has started. Threads that arrive while it's running wait for it
+	 * instead of starting their own.
+	 */
+	private @Nullable CompletableFuture<StaticDataIndex> pendingScan = null;
+	private final Object scanLock = new Object();
+	
+	/**
+	 * @param scanner builds the index. It's called at most once unless it throws, in which case the next thread to ask
+	 *                for the index calls it again.
+	 */
+	public LazyIndex(Supplier<StaticDataIndex> scanner) {
+		this.scanner = scanner;
+	}
+	
+	/**
+	 * Gets the index, scanning for it on the calling thread if nobody has started a scan yet, or waiting for the scan
+	 * already in progress. If a scan this thread was waiting for fails, this thread tries again.
+	 */
+	public StaticDataIndex get() {
+		while(true) {
+			StaticDataIndex result = index;
+			if (result != null) return result;
+			
+			CompletableFuture<StaticDataIndex> scan;
+			boolean scanHere = false;
+			synchronized(scanLock) {
+				if (pendingScan == null) {
+					pendingScan = new CompletableFuture<>();
+					scanHere = true;
+				}
+				scan = pendingScan;
+			}
+			
+			if (scanHere) return runScan(scan);
+			
+			try {
+				return scan.join();
+			} catch (CompletionException e) {
+				// The thread that ran it has already reported it, and cleared the way for another try
+			}
+		}
+	}
+	
+	/**
+	 * Replaces the published index, such as after the data behind it has changed.
+	 */
+	public void set(StaticDataIndex updated) {
+		synchronized(scanLock) {
+			index = updated;
+		}
+	}
+	
+	private StaticDataIndex runScan(CompletableFuture<StaticDataIndex> scan) {
+		try {
+			StaticDataIndex scanned = scanner.get();
+			synchronized(scanLock) {
+				// The scanner may have started something that already published a newer index, such as a watcher
+				if (index == null) index = scanned;
+				scanned = index;
+			}
+			scan.complete(scanned);
+			return scanned;
+		} catch (RuntimeException | Error e) {
+			// Let the next thread try again from scratch
+			synchronized(scanLock) {
+				pendingScan = null;
+			}
+			scan.completeExceptionally(e);
+			throw e;
+		}
+	}
+}
@@ -0,0 +1,53 @@
+package gay.debuggy.staticdata.impl;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+
+import gay.debuggy.staticdata.StaticDataMod;
+import gay.debuggy.staticdata.api.StaticDataItem;
+import net.minecraft.util.Identifier;
+
+/**
+ * Indexes the raw files inside a staticdata root, e.g. {@code staticdata/mymod/blocks/oak.json}.
+ */
+public class LooseSupplierIndex extends SupplierIndex<Identifier> {
+	
+	public LooseSupplierIndex(String modId, Path location, NavigableMap<String, Identifier> entries) {
+		super(modId, location, entries);
+	}
+	
+	@Override
+	protected StaticDataItem createItem(Identifier resourceId) {
+		Path path = location.resolve(resourceId.getNamespace()).resolve(resourceId.getPath());
+		return new PathDataItem(modId, resourceId, path);
+	}
+	
+	/**
+	 * Lists every file inside the namespace folders of a staticdata root. Files directly inside the root (such as
+	 * staticdata packs) are not part of any namespace and are skipped.
+	 * @param modId the modId to credit the data to
+	 * @param basePath the staticdata root
+	 * @return an index of the loose files in basePath
+	 */
+	public static LooseSupplierIndex scan(String modId, Path basePath) {
+		NavigableMap<String, Identifier> entries = new TreeMap<>();
+		
+		for(Path namespaceDir : StaticDataImpl.listChildren(basePath)) {
+			if (!Files.isDirectory(namespaceDir)) continue;
+			
+			for(Path file : StaticDataImpl.listFiles(namespaceDir, true)) {
+				Identifier resourceId = StaticDataImpl.tryToIdentifier(basePath.relativize(file));
+				if (resourceId == null) {
+					StaticDataMod.LOGGER.warn("Ignoring staticdata file \""+file+"\" supplied by "+modId+" because its name is not a valid Identifier.");
+					continue;
+				}
+				
+				entries.put(StaticDataImpl.toIndexKey(resourceId), resourceId);
+			}
+		}
+		
+		return new LooseSupplierIndex(modId, basePath, entries);
+	}
+}
@@ -0,0 +1,55 @@
+package gay.debuggy.staticdata.impl;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.NoSuchFileException;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Consumer;
+
+import gay.debuggy.staticdata.api.StaticDataSource;
+import net.minecraft.util.Identifier;
+
+/**
+ * A StaticDataSource which serves data held in memory, for tests, benchmarks and generated data. Data may only be
+ * added until the source is listed.
+ */
+public class MemoryStaticDataSource implements StaticDataSource {
+	private static final Set<Capability> CAPABILITIES = Set.of(Capability.INDEXED, Capability.RANDOM_ACCESS);
+	
+	private final Map<Identifier, byte[]> data = new LinkedHashMap<>();
+	
+	public MemoryStaticDataSource put(Identifier resourceId, byte[] contents) {
+		data.put(resourceId, contents.clone());
+		return this;
+	}
+	
+	public MemoryStaticDataSource put(Identifier resourceId, String contents) {
+		data.put(resourceId, contents.getBytes(StandardCharsets.UTF_8));
+		return this;
+	}
+	
+	@Override
+	public Set<Capability> getCapabilities() {
+		return CAPABILITIES;
+	}
+	
+	@Override
+	public void forEachEntry(Consumer<Identifier> consumer) {
+		data.keySet().forEach(consumer);
+	}
+	
+	@Override
+	public InputStream open(Identifier resourceId) throws NoSuchFileException {
+		byte[] contents = data.get(resourceId);
+		if (contents == null) throw new NoSuchFileException(resourceId.toString());
+		return new ByteArrayInputStream(contents);
+	}
+	
+	@Override
+	public String toString() {
+		return "memory ("+data.size()+" entries)";
+	}
+}
@@ -0,0 +1,125 @@
+package gay.debuggy.staticdata.impl;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.file.Path;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * Keeps inflated pack data in direct buffers, outside the Java heap, so that data which is read repeatedly isn't
+ * inflated again each time and doesn't add to GC pressure while it's held. Only enabled when
+ * {@link StaticDataConfig#OFF_HEAP_BUDGET} is set.
+ *
+ * <p>The store never holds more than the budget. When it's full, the least recently used payloads are dropped from the
+ * store and read from their pack again the next time they're needed. Buffers already handed out stay valid after their
+ * payload is dropped; their memory is freed once the last of them is collected.
+ */
+public class OffHeapPayloadStore {
+	private static final Map<Key, ByteBuffer> PAYLOADS = new LinkedHashMap<>(16, 0.75f, true);
+	private static long bytesStored = 0;
+	private static final LongAdder BYTES_EVICTED = new LongAdder();
+	
+	/**
+	 * @param pack the pack the payload is read from
+	 * @param offset where the payload's entry starts within the pack
+	 * @param crc the CRC-32 of the payload, so that a pack rewritten in place never serves its old data
+	 */
+	public record Key(Path pack, long offset, long crc) {}
+	
+	/**
+	 * Opens a payload's data, for reading it into the store.
+	 */
+	public interface Loader {
+		public InputStream open() throws IOException;
+	}
+	
+	public static boolean isEnabled() {
+		return StaticDataConfig.OFF_HEAP_BUDGET > 0;
+	}
+	
+	/**
+	 * Gets a payload from the store, reading it in if it isn't there.
+	 * @param key the payload's location
+	 * @param size the size of the payload
+	 * @param loader opens the payload's data if it isn't in the store
+	 * @return a read-only buffer holding the payload, positioned at its start, or null if the store is disabled or the
+	 *         payload is larger than the whole budget
+	 * @throws IOException if there was an error reading in the payload
+	 */
+	public static @Nullable ByteBuffer get(Key key, long size, Loader loader) throws IOException {
+		if (size > StaticDataConfig.OFF_HEAP_BUDGET || size > Integer.MAX_VALUE) return null;
+		
+		synchronized (PAYLOADS) {
+			ByteBuffer existing = PAYLOADS.get(key);
+			if (existing != null) return existing.duplicate();
+		}
+		
+		// Read outside the lock, so that reads of different payloads don't wait on each other
+		ByteBuffer payload = ByteBuffer.allocateDirect((int) size);
+		try (InputStream in = loader.open(); ReadableByteChannel channel = Channels.newChannel(in)) {
+			while(payload.hasRemaining() && channel.read(payload) != -1);
+			if (payload.hasRemaining() || in.read() != -1) {
+				throw new IOException("Payload at "+key.offset()+" in \""+key.pack()+"\" isn't the "+size+" bytes its pack says it is.");
+			}
+		}
+		payload = payload.flip().asReadOnlyBuffer();
+		
+		synchronized (PAYLOADS) {
+			ByteBuffer existing = PAYLOADS.putIfAbsent(key, payload);
+			if (existing != null) return existing.duplicate(); // Another thread read it in first; share theirs
+			
+			bytesStored += size;
+			Iterator<ByteBuffer> eldest = PAYLOADS.values().iterator();
+			while(bytesStored > StaticDataConfig.OFF_HEAP_BUDGET) {
+				int evicted = eldest.next().capacity();
+				eldest.remove();
+				bytesStored -= evicted;
+				if (StaticDataConfig.PROFILE) BYTES_EVICTED.add(evicted);
+			}
+		}
+		
+		return payload.duplicate();
+	}
+	
+	/**
+	 * Drops every payload read from a pack, e.g. because the pack has been replaced.
+	 * @param pack the pack whose payloads should be dropped
+	 */
+	public static void evict(Path pack) {
+		synchronized (PAYLOADS) {
+			Iterator<Map.Entry<Key, ByteBuffer>> it = PAYLOADS.entrySet().iterator();
+			while(it.hasNext()) {
+				Map.Entry<Key, ByteBuffer> entry = it.next();
+				if (!entry.getKey().pack().equals(pack)) continue;
+				
+				bytesStored -= entry.getValue().capacity();
+				it.remove();
+			}
+		}
+	}
+	
+	/**
+	 * Gets the total size of the payloads currently in the store.
+	 */
+	public static long getBytesStored() {
+		synchronized (PAYLOADS) {
+			return bytesStored;
+		}
+	}
+	
+	/**
+	 * Gets the total size of payloads dropped from the store to stay within its budget. Only tracked while
+	 * {@link StaticDataConfig#PROFILE profiling}.
+	 */
+	public static long getBytesEvicted() {
+		return BYTES_EVICTED.sum();
+	}
+}
@@ -0,0 +1,136 @@
+package gay.debuggy.staticdata.impl;
+
+import java.io.IOException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * Opens every staticdata pack ahead of the first query - reading each zip pack's central directory, and mapping each
+ * sdpack - so that the scan the first query runs only has to list what's already in memory. Zip packs whose listings
+ * are already in the {@link StaticDataCache index cache} are left alone, since the scan will use those listings instead.
+ * 
+ * <p>This only ever touches the filesystem. Nothing here builds an Identifier or calls a registered source, so it's safe
+ * to run during preLaunch, while Minecraft and other mods are still starting up.
+ */
+public class PackWarmUp {
+	private static final Map<Path, ZipPack> ZIP_PACKS = new ConcurrentHashMap<>();
+	private static final Map<Path, SdPack> SD_PACKS = new ConcurrentHashMap<>();
+	private static @Nullable CompletableFuture<Void> running = null;
+	private static volatile @Nullable StaticDataCache loadedCache = null;
+	
+	/**
+	 * Starts opening the packs in every root on background threads. Does nothing if the warm-up has already started.
+	 * @param roots the staticdata roots whose packs should be opened
+	 * @param cacheFile the index cache to load first, or null if there isn't one
+	 */
+	public static synchronized void start(List<StaticDataRoot> roots, @Nullable Path cacheFile) {
+		if (running != null) return;
+		
+		ExecutorService executor = Executors.newFixedThreadPool(StaticDataConfig.SCAN_THREADS, task -> {
+			Thread thread = new Thread(task, "StaticData Warm-up");
+			thread.setDaemon(true);
+			return thread;
+		});
+		
+		CompletableFuture<StaticDataCache> cache = CompletableFuture.supplyAsync(() -> {
+			StaticDataCache result = (cacheFile != null) ? StaticDataCache.load(cacheFile) : StaticDataCache.empty();
+			loadedCache = result;
+			return result;
+		}, executor);
+		
+		List<CompletableFuture<Void>> tasks = new ArrayList<>();
+		for(StaticDataRoot root : roots) {
+			tasks.add(cache.thenAcceptAsync(it -> openPacks(root, it), executor));
+		}
+		running = CompletableFuture.allOf(tasks.toArray(CompletableFuture[]::new));
+		running.whenComplete((result, e) -> executor.shutdown());
+	}
+	
+	/**
+	 * Waits for the warm-up to finish, if it was started.
+	 */
+	public static void await() {
+		CompletableFuture<Void> warmUp;
+		synchronized(PackWarmUp.class) {
+			warmUp = running;
+		}
+		if (warmUp == null) return;
+		
+		try {
+			warmUp.join();
+		} catch (RuntimeException e) {
+			// Whatever didn't open here will be opened, and reported, by the scan
+		}
+	}
+	
+	/**
+	 * Hands over the index cache loaded by the warm-up, so the scan doesn't have to load it again. It's only handed over
+	 * once.
+	 * @return the cache, or null if the warm-up didn't load one
+	 */
+	public static @Nullable StaticDataCache takeCache() {
+		StaticDataCache result = loadedCache;
+		loadedCache = null;
+		return result;
+	}
+	
+	/**
+	 * Hands over a zip pack opened by the warm-up. Each pack is only handed over once.
+	 * @return the pack, with only its staticdata entries read, or null if it wasn't opened
+	 */
+	public static @Nullable ZipPack takeZipPack(Path path) {
+		return ZIP_PACKS.remove(path);
+	}
+	
+	/**
+	 * Hands over an sdpack opened by the warm-up. Each pack is only handed over once.
+	 * @return the pack, or null if it wasn't opened
+	 */
+	public static @Nullable SdPack takeSdPack(Path path) {
+		return SD_PACKS.remove(path);
+	}
+	
+	/**
+	 * Drops any packs that were opened but never handed over, e.g. because they were removed before the scan, and lets
+	 * the warm-up be started again.
+	 */
+	public static synchronized void clear() {
+		ZIP_PACKS.clear();
+		SD_PACKS.clear();
+		loadedCache = null;
+		running = null;
+	}
+	
+	private static void openPacks(StaticDataRoot root, StaticDataCache cache) {
+		if (!Files.isDirectory(root.path())) return;
+		
+		try (DirectoryStream<Path> ls = Files.newDirectoryStream(root.path())) {
+			for(Path subPath : ls) {
+				Path fileName = subPath.getFileName();
+				if (fileName == null || !Files.isRegularFile(subPath)) continue;
+				
+				try {
+					if (fileName.toString().endsWith(SdPack.EXTENSION)) {
+						SD_PACKS.put(subPath, new SdPack(subPath));
+					} else if (fileName.toString().endsWith(".zip") && !cache.hasZip(root.modId(), subPath)) {
+						ZIP_PACKS.put(subPath, new ZipPack(subPath, EntryNameMatcher.staticData()));
+					}
+				} catch (IOException | RuntimeException e) {
+					// The scan will try this pack again, and report it if it's still unreadable
+				}
+			}
+		} catch (IOException e) {
+			// Same as above, for the whole root
+		}
+	}
+}
@@ -2,16 +2,30 @@
 
 import java.io.IOException;
 import java.io.InputStream;
+import java.nio.ByteBuffer;
 import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.nio.file.attribute.FileTime;
 import java.util.List;
+import java.util.Objects;
+import java.util.stream.Stream;
+
+import org.jetbrains.annotations.Nullable;
 
 import net.minecraft.util.Identifier;
 
 public class PathDataItem extends AbstractDataItem {
 	private final Path path;
+	/**
+	 * The file's mapping, made the first time it's asked for and shared through duplicates afterwards. It's remade if
+	 * the file changes size or modification time.
+	 */
+	private volatile @Nullable MappedFile mapped = null;
+	
+	private record MappedFile(long size, FileTime lastModified, ByteBuffer buffer) {}
 	
 	public PathDataItem(String modId, Identifier resourceId, Path path) {
 		super(modId, resourceId);
@@ -28,16 +42,59 @@ public byte[] getAsBytes() throws IOException {
 		return Files.readAllBytes(path);
 	}
 	
+	@Override
+	public ByteBuffer getAsByteBuffer() throws IOException {
+		BasicFileAttributes attributes = Files.readAttributes(path, BasicFileAttributes.class);
+		MappedFile file = mapped;
+		if (file == null || file.size() != attributes.size() || !file.lastModified().equals(attributes.lastModifiedTime())) {
+			ByteBuffer buffer = StaticDataImpl.map(path, 0, attributes.size());
+			if (buffer == null) return ByteBuffer.wrap(getSharedBytes()).asReadOnlyBuffer();
+			
+			file = new MappedFile(attributes.size(), attributes.lastModifiedTime(), buffer);
+			mapped = file;
+		}
+		return file.buffer().duplicate();
+	}
+	
+	@Override
+	protected byte[] getSharedBytes() throws IOException {
+		byte[] data = Files.readAllBytes(path);
+		return (StaticDataConfig.DEDUPLICATE_LOOSE_FILES) ? PayloadStore.intern(data) : data;
+	}
+	
 	@Override
 	public List<String> getAsLines() throws IOException {
 		return Files.readAllLines(path, StandardCharsets.UTF_8);
 	}
 	
+	@Override
+	public Stream<String> streamLines() throws IOException {
+		return Files.lines(path, StandardCharsets.UTF_8);
+	}
+	
+	@Override
+	public long getContentFingerprint() throws IOException {
+		return ContentFingerprints.ofFile(path);
+	}
+	
 	@Override
 	public String getAsString() throws IOException {
 		return Files.readString(path, StandardCharsets.UTF_8);
 	}
 	
+	@Override
+	public boolean equals(Object obj) {
+		return obj instanceof PathDataItem other
+				&& other.getModId().equals(getModId())
+				&& other.getResourceId().equals(getResourceId())
+				&& other.path.equals(path);
+	}
+	
+	@Override
+	public int hashCode() {
+		return Objects.hash(getModId(), getResourceId(), path);
+	}
+	
 	@Override
 	public String toString() {
 		return getModId()+":"+getResourceId().getNamespace()+":"+getResourceId().getPath()+" > "+path.toString();
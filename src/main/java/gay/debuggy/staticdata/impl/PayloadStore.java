@@ -0,0 +1,87 @@
+package gay.debuggy.staticdata.impl;
+
+import java.lang.ref.ReferenceQueue;
+import java.lang.ref.WeakReference;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.zip.CRC32;
+
+/**
+ * Stores payloads by their contents, so that identical data from different suppliers - the same compat file shipped in
+ * a mod jar, again in a pack, and again in the instance folder - shares a single array on the heap.
+ *
+ * <p>Payloads are only weakly held: once nothing outside the store refers to a payload, it can be collected as usual.
+ * Arrays handed to {@link #intern(byte[], long)} become shared and MUST NOT be modified afterwards.
+ */
+public class PayloadStore {
+	private static final Map<Key, PayloadReference> PAYLOADS = new ConcurrentHashMap<>();
+	private static final ReferenceQueue<byte[]> COLLECTED = new ReferenceQueue<>();
+	private static final LongAdder BYTES_SHARED = new LongAdder();
+	
+	private record Key(int size, long crc) {}
+	
+	private static class PayloadReference extends WeakReference<byte[]> {
+		private final Key key;
+		
+		public PayloadReference(Key key, byte[] payload) {
+			super(payload, COLLECTED);
+			this.key = key;
+		}
+	}
+	
+	/**
+	 * Gets the shared copy of a payload, calculating its CRC-32 first.
+	 * @param data the payload
+	 * @return an array with the same contents as data, which may be data itself
+	 */
+	public static byte[] intern(byte[] data) {
+		CRC32 crc = new CRC32();
+		crc.update(data);
+		return intern(data, crc.getValue());
+	}
+	
+	/**
+	 * Gets the shared copy of a payload whose CRC-32 is already known, such as one read from a zip central directory.
+	 * @param data the payload
+	 * @param crc the CRC-32 of data
+	 * @return an array with the same contents as data, which may be data itself
+	 */
+	public static byte[] intern(byte[] data, long crc) {
+		purgeCollected();
+		
+		Key key = new Key(data.length, crc);
+		while (true) {
+			PayloadReference existing = PAYLOADS.get(key);
+			byte[] shared = (existing != null) ? existing.get() : null;
+			
+			if (shared != null) {
+				if (!Arrays.equals(shared, data)) return data; // A genuine CRC collision. Rare enough to just not share.
+				
+				if (StaticDataConfig.PROFILE) BYTES_SHARED.add(data.length);
+				return shared;
+			}
+			
+			PayloadReference reference = new PayloadReference(key, data);
+			boolean stored = (existing == null) ? PAYLOADS.putIfAbsent(key, reference) == null : PAYLOADS.replace(key, existing, reference);
+			if (stored) return data;
+			// Another thread stored the same key first; go around again and share theirs
+		}
+	}
+	
+	/**
+	 * Gets the total size of payloads that were found to already be in the store, and so didn't need another copy. Only
+	 * tracked while {@link StaticDataConfig#PROFILE profiling}.
+	 */
+	public static long getBytesShared() {
+		return BYTES_SHARED.sum();
+	}
+	
+	private static void purgeCollected() {
+		PayloadReference reference;
+		while ((reference = (PayloadReference) COLLECTED.poll()) != null) {
+			PAYLOADS.remove(reference.key, reference);
+		}
+	}
+}
@@ -0,0 +1,202 @@
+package gay.debuggy.staticdata.impl;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.SeekableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import gay.debuggy.staticdata.api.StaticDataFingerprints;
+import gay.debuggy.staticdata.api.StaticDataItem;
+
+/**
+ * A precompiled staticdata pack. Unlike a zip, everything a query needs is at a fixed offset: entries are kept in a
+ * table sorted by name, so lookups are a binary search over the mapped file, and payloads are stored uncompressed, so
+ * reading one is just a slice of the same mapping.
+ * 
+ * <p>Layout, all integers big-endian:
+ * 
+ * <pre>
+ * header      int magic "SDPK", int version, int entryCount, int nameTableSize
+ * entry table entryCount * { int nameOffset, int nameLength, long dataOffset, int size, int crc }
+ * name table  the UTF-8 key of each entry, e.g. "mymod/blocks/oak.json", in the same (sorted) order as the entry table
+ * data        each entry's payload, uncompressed
+ * </pre>
+ * 
+ * <p>Name offsets are relative to the start of the name table; data offsets are from the start of the file. Packs are
+ * written by {@link SdPackWriter}.
+ */
+public class SdPack {
+	public static final String EXTENSION = ".sdpack";
+	public static final int MAGIC = 0x5344504B; // "SDPK"
+	public static final int VERSION = 1;
+	public static final int HEADER_SIZE = 16;
+	public static final int ENTRY_SIZE = 24;
+	
+	private final Path path;
+	private final ByteBuffer buffer;
+	private final int entryCount;
+	private final int nameTableOffset;
+	/**
+	 * Content fingerprints of entries that have been hashed for one, by index.
+	 */
+	private final Map<Integer, Long> contentFingerprints = new ConcurrentHashMap<>();
+	
+	/**
+	 * Opens a pack. Packs on the default filesystem are memory-mapped; packs inside other filesystems, such as a mod
+	 * jar, are read onto the heap once.
+	 * @param path the pack file
+	 * @throws IOException if the pack can't be read or isn't a valid sdpack
+	 */
+	public SdPack(Path path) throws IOException {
+		this.path = path;
+		this.buffer = open(path);
+		
+		if (buffer.capacity() < HEADER_SIZE || buffer.getInt(0) != MAGIC) throw new IOException("\""+path+"\" is not a staticdata pack.");
+		if (buffer.getInt(4) != VERSION) throw new IOException("Staticdata pack \""+path+"\" has unsupported version "+buffer.getInt(4));
+		
+		this.entryCount = buffer.getInt(8);
+		int nameTableSize = buffer.getInt(12);
+		long nameTableEnd = HEADER_SIZE + (long) entryCount * ENTRY_SIZE + nameTableSize;
+		if (entryCount < 0 || nameTableSize < 0 || nameTableEnd > buffer.capacity()) throw new IOException("Staticdata pack \""+path+"\" is truncated.");
+		this.nameTableOffset = HEADER_SIZE + entryCount * ENTRY_SIZE;
+		
+		for(int i=0; i<entryCount; i++) {
+			int entry = entryOffset(i);
+			long nameOffset = buffer.getInt(entry);
+			long nameLength = buffer.getInt(entry + 4);
+			long dataOffset = buffer.getLong(entry + 8);
+			long size = buffer.getInt(entry + 16);
+			if (nameOffset < 0 || nameLength < 0 || nameOffset + nameLength > nameTableSize
+					|| dataOffset < nameTableEnd || size < 0 || dataOffset + size > buffer.capacity()) {
+				throw new IOException("Staticdata pack \""+path+"\" has a corrupt entry table.");
+			}
+		}
+	}
+	
+	private static ByteBuffer open(Path path) throws IOException {
+		if (path.getFileSystem() == FileSystems.getDefault()) {
+			try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+				if (channel.size() > Integer.MAX_VALUE) throw new IOException("Staticdata pack \""+path+"\" is larger than 2 GB.");
+				return channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+			} catch (UnsupportedOperationException e) {
+				// Fall through and read it instead
+			}
+		}
+		
+		try (SeekableByteChannel channel = Files.newByteChannel(path, StandardOpenOption.READ)) {
+			if (channel.size() > Integer.MAX_VALUE) throw new IOException("Staticdata pack \""+path+"\" is larger than 2 GB.");
+			ByteBuffer result = ByteBuffer.allocate((int) channel.size());
+			ZipPack.readFully(channel, result, 0);
+			return result.flip();
+		}
+	}
+	
+	public Path getPath() {
+		return path;
+	}
+	
+	public int size() {
+		return entryCount;
+	}
+	
+	private int entryOffset(int index) {
+		return HEADER_SIZE + index * ENTRY_SIZE;
+	}
+	
+	/**
+	 * Gets the key of an entry, e.g. "mymod/blocks/oak.json".
+	 */
+	public String getKey(int index) {
+		int entry = entryOffset(index);
+		byte[] name = new byte[buffer.getInt(entry + 4)];
+		buffer.get(nameTableOffset + buffer.getInt(entry), name);
+		return new String(name, StandardCharsets.UTF_8);
+	}
+	
+	public long getCrc(int index) {
+		return Integer.toUnsignedLong(buffer.getInt(entryOffset(index) + 20));
+	}
+	
+	public int getSize(int index) {
+		return buffer.getInt(entryOffset(index) + 16);
+	}
+	
+	/**
+	 * Gets the data of an entry without copying it.
+	 * @return a read-only buffer over exactly the entry's payload
+	 */
+	public ByteBuffer getData(int index) {
+		int entry = entryOffset(index);
+		return buffer.slice((int) buffer.getLong(entry + 8), buffer.getInt(entry + 16)).asReadOnlyBuffer();
+	}
+	
+	/**
+	 * Gets the {@link StaticDataItem#getContentFingerprint() content fingerprint} of an entry, hashing its data the first
+	 * time it's asked for.
+	 */
+	public long getContentFingerprint(int index) {
+		return contentFingerprints.computeIfAbsent(index, it -> StaticDataFingerprints.of(getData(it)));
+	}
+	
+	/**
+	 * Finds an entry by its key.
+	 * @return the entry's index, or -1 if there's no such entry
+	 */
+	public int find(String key) {
+		byte[] target = key.getBytes(StandardCharsets.UTF_8);
+		int index = lowerBound(target);
+		return (index < entryCount && compareKey(index, target) == 0) ? index : -1;
+	}
+	
+	/**
+	 * Finds the first entry whose key is greater than or equal to the given key. Every key starting with a prefix can
+	 * be found between {@code lowerBound(prefix)} and the lower bound of the prefix's successor.
+	 * @return the index of the first such entry, or {@link #size()} if there are none
+	 */
+	public int lowerBound(String key) {
+		return lowerBound(key.getBytes(StandardCharsets.UTF_8));
+	}
+	
+	private int lowerBound(byte[] target) {
+		int low = 0;
+		int high = entryCount;
+		while(low < high) {
+			int mid = (low + high) >>> 1;
+			if (compareKey(mid, target) < 0) {
+				low = mid + 1;
+			} else {
+				high = mid;
+			}
+		}
+		
+		return low;
+	}
+	
+	/**
+	 * Compares an entry's key with a UTF-8 key directly in the mapped name table, without decoding it.
+	 */
+	private int compareKey(int index, byte[] target) {
+		int entry = entryOffset(index);
+		int nameStart = nameTableOffset + buffer.getInt(entry);
+		int nameLength = buffer.getInt(entry + 4);
+		
+		int length = Math.min(nameLength, target.length);
+		for(int i=0; i<length; i++) {
+			int diff = Byte.toUnsignedInt(buffer.get(nameStart + i)) - Byte.toUnsignedInt(target[i]);
+			if (diff != 0) return diff;
+		}
+		return nameLength - target.length;
+	}
+	
+	@Override
+	public String toString() {
+		return path+" ("+entryCount+" entries)";
+	}
+}
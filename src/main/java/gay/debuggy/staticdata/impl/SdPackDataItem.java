@@ -0,0 +1,76 @@
+package gay.debuggy.staticdata.impl;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Objects;
+
+import net.minecraft.util.Identifier;
+
+/**
+ * A StaticDataItem which lives inside an {@link SdPack}. Its data is a slice of the pack's mapping, so reading it as a
+ * ByteBuffer never copies anything.
+ */
+public class SdPackDataItem extends AbstractDataItem {
+	private final SdPack pack;
+	private final int index;
+	
+	public SdPackDataItem(String modId, Identifier resourceId, SdPack pack, int index) {
+		super(modId, resourceId);
+		this.pack = pack;
+		this.index = index;
+	}
+	
+	@Override
+	public InputStream getAsStream() throws IOException {
+		return new ByteBufferInputStream(pack.getData(index));
+	}
+	
+	@Override
+	public byte[] getAsBytes() throws IOException {
+		ByteBuffer data = pack.getData(index);
+		byte[] result = new byte[data.remaining()];
+		data.get(result);
+		return result;
+	}
+	
+	@Override
+	public ByteBuffer getAsByteBuffer() throws IOException {
+		return pack.getData(index);
+	}
+	
+	@Override
+	protected byte[] getSharedBytes() throws IOException {
+		return PayloadStore.intern(getAsBytes(), pack.getCrc(index));
+	}
+	
+	@Override
+	public long getContentFingerprint() {
+		return pack.getContentFingerprint(index);
+	}
+	
+	@Override
+	public String getAsString() throws IOException {
+		return StandardCharsets.UTF_8.decode(pack.getData(index)).toString();
+	}
+	
+	@Override
+	public boolean equals(Object obj) {
+		return obj instanceof SdPackDataItem other
+				&& other.getModId().equals(getModId())
+				&& other.getResourceId().equals(getResourceId())
+				&& other.pack.getPath().equals(pack.getPath())
+				&& other.index == index;
+	}
+	
+	@Override
+	public int hashCode() {
+		return Objects.hash(getModId(), getResourceId(), pack.getPath(), index);
+	}
+	
+	@Override
+	public String toString() {
+		return getModId()+":"+getResourceId().getNamespace()+":"+getResourceId().getPath()+" > "+pack.getPath()+" ("+pack.getSize(index)+" bytes)";
+	}
+}
@@ -0,0 +1,130 @@
+package gay.debuggy.staticdata.impl;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.TreeMap;
+import java.util.function.Consumer;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+import org.jetbrains.annotations.Nullable;
+
+import gay.debuggy.staticdata.api.DirectoryQuery;
+import gay.debuggy.staticdata.api.StaticDataItem;
+import gay.debuggy.staticdata.api.StaticDataPattern;
+import net.minecraft.util.Identifier;
+
+/**
+ * Serves the contents of an {@link SdPack}. The pack's own sorted entry table is the index, so nothing is listed or
+ * copied when the pack is opened, and every query is answered by binary searching the mapped file.
+ */
+public class SdPackSupplierIndex extends SupplierIndex<Integer> {
+	private final SdPack pack;
+	
+	public SdPackSupplierIndex(String modId, SdPack pack) {
+		super(modId, pack.getPath(), new TreeMap<>());
+		this.pack = pack;
+	}
+	
+	public SdPack getPack() {
+		return pack;
+	}
+	
+	/**
+	 * Opens a staticdata pack in the sdpack format.
+	 * @param modId the modId to credit the data to
+	 * @param packPath the pack file
+	 * @return an index serving the pack's contents
+	 * @throws IOException if the pack could not be read
+	 */
+	public static SdPackSupplierIndex open(String modId, Path packPath) throws IOException {
+		return new SdPackSupplierIndex(modId, new SdPack(packPath));
+	}
+	
+	@Override
+	public int size() {
+		return pack.size();
+	}
+	
+	/**
+	 * Only used to tell which entries changed between two versions of a pack, so each entry's CRC-32 and size stand in
+	 * for its data.
+	 */
+	private record EntryChecksum(long crc, int size) {}
+	
+	@Override
+	public Map<String, ?> getEntries() {
+		Map<String, EntryChecksum> result = new TreeMap<>();
+		for(int i=0; i<pack.size(); i++) {
+			result.put(pack.getKey(i), new EntryChecksum(pack.getCrc(i), pack.getSize(i)));
+		}
+		
+		return result;
+	}
+	
+	@Override
+	public void forEachKey(Consumer<String> consumer) {
+		for(int i=0; i<pack.size(); i++) consumer.accept(pack.getKey(i));
+	}
+	
+	@Override
+	public boolean containsKey(String key) {
+		return pack.find(key) != -1;
+	}
+	
+	@Override
+	public void addExactData(Identifier resId, List<StaticDataItem> results) {
+		int index = pack.find(StaticDataImpl.toIndexKey(resId));
+		if (index != -1) results.add(createItem(index));
+	}
+	
+	@Override
+	public void addDirectoryData(List<DirectoryQuery> queries, List<List<StaticDataItem>> results) {
+		// Each lookup is only a binary search, so there's nothing to gain from grouping the queries
+		for(int i=0; i<queries.size(); i++) {
+			addDirectoryData(queries.get(i).resourceId(), queries.get(i).recursive(), results.get(i));
+		}
+	}
+	
+	@Override
+	public Stream<StaticDataItem> streamDirectoryData(Identifier resId, boolean recursive) {
+		String prefix = StaticDataImpl.toDirectoryPrefix(resId);
+		
+		return range(prefix + "/", prefix + "0").mapToObj(index -> {
+			String key = pack.getKey(index);
+			if (!recursive && key.indexOf('/', prefix.length() + 1) != -1) return null;
+			return createItem(index, key);
+		}).filter(Objects::nonNull);
+	}
+	
+	@Override
+	public Stream<StaticDataItem> streamMatchingData(StaticDataPattern pattern) {
+		IntStream candidates = IntStream.range(0, pack.size());
+		if (pattern.getLiteralNamespace() != null) {
+			String prefix = pattern.getLiteralNamespace() + "/" + pattern.getLiteralPrefix();
+			candidates = range(prefix, prefix.substring(0, prefix.length() - 1) + "0");
+		}
+		
+		return candidates.mapToObj(index -> {
+			String key = pack.getKey(index);
+			return (StaticDataImpl.matchesPattern(key, pattern)) ? createItem(index, key) : null;
+		}).filter(Objects::nonNull);
+	}
+	
+	private IntStream range(String fromKey, String toKey) {
+		return IntStream.range(pack.lowerBound(fromKey), pack.lowerBound(toKey));
+	}
+	
+	@Override
+	protected StaticDataItem createItem(Integer index) {
+		return createItem(index, pack.getKey(index));
+	}
+	
+	private @Nullable StaticDataItem createItem(int index, String key) {
+		Identifier resourceId = StaticDataImpl.tryToIdentifier(key);
+		return (resourceId != null) ? new SdPackDataItem(modId, resourceId, pack, index) : null;
+	}
+}
@@ -0,0 +1,103 @@
+package gay.debuggy.staticdata.impl;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+import java.util.zip.CRC32;
+
+import net.minecraft.util.Identifier;
+
+/**
+ * Builds an {@link SdPack} from a staticdata folder - the same layout as the "staticdata" folder of a mod, or of the
+ * game directory. Run it from the command line, or through the {@code sdpack} Gradle task:
+ * 
+ * <pre>
+ * java gay.debuggy.staticdata.impl.SdPackWriter &lt;staticdata folder&gt; &lt;output.sdpack&gt;
+ * </pre>
+ */
+public class SdPackWriter {
+	
+	public static void main(String[] args) throws IOException {
+		if (args.length != 2) {
+			System.err.println("Usage: SdPackWriter <staticdata folder> <output"+SdPack.EXTENSION+">");
+			System.exit(1);
+		}
+		
+		int entries = write(Path.of(args[0]), Path.of(args[1]));
+		System.out.println("Wrote "+entries+" entries to "+args[1]);
+	}
+	
+	/**
+	 * Packs every file inside the namespace folders of a staticdata folder. Files whose names aren't valid Identifiers
+	 * are skipped, exactly as they would be if the folder were used directly.
+	 * @param staticDataDir the folder to pack
+	 * @param output the pack file to write, which is replaced if it exists
+	 * @return the number of files packed
+	 * @throws IOException if a file couldn't be read or the pack couldn't be written
+	 */
+	public static int write(Path staticDataDir, Path output) throws IOException {
+		NavigableMap<String, Path> files = new TreeMap<>();
+		for(Path namespaceDir : StaticDataImpl.listChildren(staticDataDir)) {
+			if (!Files.isDirectory(namespaceDir)) continue;
+			
+			for(Path file : StaticDataImpl.listFiles(namespaceDir, true)) {
+				Identifier resourceId = StaticDataImpl.tryToIdentifier(staticDataDir.relativize(file));
+				if (resourceId == null) {
+					System.err.println("Skipping \""+file+"\" because its name is not a valid Identifier.");
+					continue;
+				}
+				files.put(StaticDataImpl.toIndexKey(resourceId), file);
+			}
+		}
+		
+		// Keys are Identifiers, which are plain ASCII, so sorting them as Strings also sorts their UTF-8 bytes
+		ByteBuffer names = ByteBuffer.allocate(files.keySet().stream().mapToInt(key -> key.getBytes(StandardCharsets.UTF_8).length).sum());
+		ByteBuffer table = ByteBuffer.allocate(SdPack.HEADER_SIZE + files.size() * SdPack.ENTRY_SIZE);
+		table.putInt(SdPack.MAGIC).putInt(SdPack.VERSION).putInt(files.size()).putInt(names.capacity());
+		
+		try (FileChannel channel = FileChannel.open(output, StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+			long dataOffset = table.capacity() + names.capacity();
+			
+			byte[] buf = new byte[65536];
+			for(Map.Entry<String, Path> entry : files.entrySet()) {
+				byte[] name = entry.getKey().getBytes(StandardCharsets.UTF_8);
+				table.putInt(names.position()).putInt(name.length);
+				names.put(name);
+				
+				CRC32 crc = new CRC32();
+				long size = 0;
+				try (InputStream in = Files.newInputStream(entry.getValue())) {
+					int read;
+					while((read = in.read(buf)) != -1) {
+						crc.update(buf, 0, read);
+						writeFully(channel, ByteBuffer.wrap(buf, 0, read), dataOffset + size);
+						size += read;
+					}
+				}
+				if (dataOffset + size > Integer.MAX_VALUE) throw new IOException("Staticdata packs are limited to 2 GB.");
+				
+				table.putLong(dataOffset).putInt((int) size).putInt((int) crc.getValue());
+				dataOffset += size;
+			}
+			
+			writeFully(channel, table.flip(), 0);
+			writeFully(channel, names.flip(), table.capacity());
+		}
+		
+		return files.size();
+	}
+	
+	private static void writeFully(FileChannel channel, ByteBuffer buf, long position) throws IOException {
+		while(buf.hasRemaining()) {
+			position += channel.write(buf, position);
+		}
+	}
+}
@@ -0,0 +1,52 @@
+package gay.debuggy.staticdata.impl;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Objects;
+
+import gay.debuggy.staticdata.api.StaticDataSource;
+import net.minecraft.util.Identifier;
+
+/**
+ * A StaticDataItem supplied by a {@link StaticDataSource} with random access. The data is opened from the source each
+ * time it's requested.
+ */
+public class SourceDataItem extends AbstractDataItem {
+	private final StaticDataSource source;
+	private volatile Long fingerprint = null;
+	
+	public SourceDataItem(String modId, Identifier resourceId, StaticDataSource source) {
+		super(modId, resourceId);
+		this.source = source;
+	}
+	
+	@Override
+	public InputStream getAsStream() throws IOException {
+		return source.open(getResourceId());
+	}
+	
+	@Override
+	public long getContentFingerprint() throws IOException {
+		Long result = fingerprint;
+		if (result == null) fingerprint = result = super.getContentFingerprint();
+		return result;
+	}
+	
+	@Override
+	public boolean equals(Object obj) {
+		return obj instanceof SourceDataItem other
+				&& other.getModId().equals(getModId())
+				&& other.getResourceId().equals(getResourceId())
+				&& other.source == source;
+	}
+	
+	@Override
+	public int hashCode() {
+		return Objects.hash(getModId(), getResourceId(), System.identityHashCode(source));
+	}
+	
+	@Override
+	public String toString() {
+		return getModId()+":"+getResourceId().getNamespace()+":"+getResourceId().getPath()+" > "+source;
+	}
+}
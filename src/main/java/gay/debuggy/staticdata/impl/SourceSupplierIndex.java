@@ -0,0 +1,70 @@
+package gay.debuggy.staticdata.impl;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+
+import gay.debuggy.staticdata.api.StaticDataItem;
+import gay.debuggy.staticdata.api.StaticDataSource;
+import net.minecraft.util.Identifier;
+
+/**
+ * Indexes the entries of a {@link StaticDataSource} that isn't one of StaticData's own suppliers. Entries are listed
+ * once, and items are created up front, since the source decides how they're read.
+ */
+public class SourceSupplierIndex extends SupplierIndex<StaticDataItem> {
+	private final StaticDataSource source;
+	
+	public SourceSupplierIndex(String modId, StaticDataSource source, NavigableMap<String, StaticDataItem> entries) {
+		super(modId, source.getLocation(), entries);
+		this.source = source;
+	}
+	
+	public StaticDataSource getSource() {
+		return source;
+	}
+	
+	@Override
+	protected StaticDataItem createItem(StaticDataItem item) {
+		return item;
+	}
+	
+	/**
+	 * Lists a source's entries. Sources without {@link StaticDataSource.Capability#RANDOM_ACCESS random access} are
+	 * read in full, one entry at a time in the order they were listed.
+	 * @param modId the modId to credit the data to
+	 * @param source the source to list
+	 * @return an index of the source's entries
+	 * @throws IOException if the source could not be listed or read
+	 */
+	public static SourceSupplierIndex scan(String modId, StaticDataSource source) throws IOException {
+		boolean randomAccess = source.getCapabilities().contains(StaticDataSource.Capability.RANDOM_ACCESS);
+		
+		List<Identifier> listed = new ArrayList<>();
+		source.forEachEntry(listed::add);
+		
+		NavigableMap<String, StaticDataItem> entries = new TreeMap<>();
+		for(Identifier resourceId : listed) {
+			String key = StaticDataImpl.toIndexKey(resourceId);
+			if (entries.containsKey(key)) continue;
+			
+			if (randomAccess) {
+				entries.put(key, new SourceDataItem(modId, resourceId, source));
+			} else {
+				try (InputStream in = source.open(resourceId)) {
+					entries.put(key, new CachedDataItem(modId, resourceId, in.readAllBytes()));
+				}
+			}
+		}
+		
+		return new SourceSupplierIndex(modId, source, entries);
+	}
+	
+	@Override
+	public String toString() {
+		return modId+" > "+source+" ("+size()+" entries)";
+	}
+}
@@ -0,0 +1,298 @@
+package gay.debuggy.staticdata.impl;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.net.URI;
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+import java.util.zip.CRC32;
+
+import org.jetbrains.annotations.Nullable;
+
+import gay.debuggy.staticdata.StaticDataMod;
+import net.minecraft.util.Identifier;
+
+/**
+ * Remembers the contents of staticdata suppliers across launches, so that unchanged mod jars and packs don't have to be
+ * enumerated again. Each supplier is stored with a fingerprint (size and modification time) of the file it came from,
+ * and a cached listing is only used if that file still has the same fingerprint.
+ *
+ * <p>Only suppliers that live in a single file - packs, and mod roots inside a jar - can be cached. Folders on disk,
+ * such as mods in a development environment or the instance staticdata folder, are always scanned.
+ *
+ * <p>The cache file is checksummed. If it's missing, corrupt, or from a different version, it is ignored entirely and
+ * everything is scanned from scratch.
+ *
+ * <p>Loading a cache file only touches the filesystem; Identifiers are built when a listing is used. So the
+ * {@link PackWarmUp warm-up} can load it during preLaunch, to skip opening packs whose listings are already cached.
+ */
+public class StaticDataCache {
+	private static final int MAGIC = 0x53444958; // "SDIX"
+	private static final int VERSION = 1;
+	
+	/**
+	 * A cheap identity for a file, which changes whenever the file is replaced or modified.
+	 */
+	public record Fingerprint(long size, long lastModified) {
+		
+		/**
+		 * Finds the fingerprint of the file a supplier's data comes from. For a pack on disk this is the pack itself; for
+		 * anything inside a jar file, it is the jar.
+		 * @param location the location of a pack or staticdata root
+		 * @return the fingerprint, or null if the location isn't backed by a single file on disk
+		 */
+		public static @Nullable Fingerprint of(Path location) {
+			Path file = location;
+			if (location.getFileSystem() != FileSystems.getDefault()) {
+				// Jar filesystems identify themselves as "jar:<uri of the jar>!/<path inside the jar>"
+				try {
+					URI uri = location.toUri();
+					if (!"jar".equals(uri.getScheme())) return null;
+					String jarUri = uri.getRawSchemeSpecificPart();
+					int separator = jarUri.indexOf("!/");
+					if (separator == -1) return null;
+					
+					file = Path.of(new URI(jarUri.substring(0, separator)));
+				} catch (Exception e) {
+					return null;
+				}
+				if (file.getFileSystem() != FileSystems.getDefault()) return null;
+			}
+			
+			try {
+				BasicFileAttributes attributes = Files.readAttributes(file, BasicFileAttributes.class);
+				if (!attributes.isRegularFile()) return null;
+				
+				return new Fingerprint(attributes.size(), attributes.lastModifiedTime().toMillis());
+			} catch (IOException e) {
+				return null;
+			}
+		}
+	}
+	
+	/**
+	 * @param namespaces the namespace of each resourceId, kept apart from its path until the listing is used
+	 */
+	private record CachedSupplier(Fingerprint fingerprint, List<String> namespaces, List<String> paths, List<ZipPack.Entry> zipEntries) {
+		Identifier resourceId(int i) {
+			return Identifier.of(namespaces.get(i), paths.get(i));
+		}
+	}
+	
+	private final Map<String, CachedSupplier> suppliers;
+	private final long checksum;
+	
+	private StaticDataCache(Map<String, CachedSupplier> suppliers, long checksum) {
+		this.suppliers = suppliers;
+		this.checksum = checksum;
+	}
+	
+	/**
+	 * Gets an empty cache, which never has a listing for any supplier.
+	 */
+	public static StaticDataCache empty() {
+		return new StaticDataCache(Map.of(), -1);
+	}
+	
+	/**
+	 * Checks whether there's an up-to-date listing of a staticdata pack, without building it.
+	 */
+	public boolean hasZip(String modId, Path zipPath) {
+		CachedSupplier cached = get(zipKey(modId, zipPath), zipPath);
+		return cached != null && cached.zipEntries() != null;
+	}
+	
+	/**
+	 * Gets the cached listing of a staticdata pack.
+	 * @return the pack's index, or null if it isn't cached or has changed since it was cached
+	 */
+	public @Nullable ZipSupplierIndex getZip(String modId, Path zipPath) {
+		CachedSupplier cached = get(zipKey(modId, zipPath), zipPath);
+		if (cached == null || cached.zipEntries() == null) return null;
+		
+		NavigableMap<String, ZipSupplierIndex.Entry> entries = new TreeMap<>();
+		for(int i=0; i<cached.paths().size(); i++) {
+			Identifier resourceId = cached.resourceId(i);
+			entries.put(StaticDataImpl.toIndexKey(resourceId), new ZipSupplierIndex.Entry(resourceId, cached.zipEntries().get(i)));
+		}
+		
+		return new ZipSupplierIndex(modId, new ZipPack(zipPath, cached.zipEntries()), entries);
+	}
+	
+	/**
+	 * Gets the cached listing of the raw files in a staticdata root.
+	 * @return the root's index, or null if it isn't cached or has changed since it was cached
+	 */
+	public @Nullable LooseSupplierIndex getLoose(String modId, Path basePath) {
+		CachedSupplier cached = get(looseKey(modId, basePath), basePath);
+		if (cached == null || cached.zipEntries() != null) return null;
+		
+		NavigableMap<String, Identifier> entries = new TreeMap<>();
+		for(int i=0; i<cached.paths().size(); i++) {
+			Identifier resourceId = cached.resourceId(i);
+			entries.put(StaticDataImpl.toIndexKey(resourceId), resourceId);
+		}
+		
+		return new LooseSupplierIndex(modId, basePath, entries);
+	}
+	
+	private @Nullable CachedSupplier get(String key, Path location) {
+		CachedSupplier cached = suppliers.get(key);
+		if (cached == null) return null;
+		
+		Fingerprint current = Fingerprint.of(location);
+		return (cached.fingerprint().equals(current)) ? cached : null;
+	}
+	
+	private static String zipKey(String modId, Path zipPath) {
+		return "zip "+modId+" "+zipPath.toUri();
+	}
+	
+	private static String looseKey(String modId, Path basePath) {
+		return "dir "+modId+" "+basePath.toUri();
+	}
+	
+	/**
+	 * Reads a cache file.
+	 * @param file the cache file
+	 * @return the cache, or an empty cache if the file doesn't exist or can't be trusted
+	 */
+	public static StaticDataCache load(Path file) {
+		if (!Files.isRegularFile(file)) return empty();
+		
+		try (DataInputStream in = new DataInputStream(Files.newInputStream(file))) {
+			if (in.readInt() != MAGIC || in.readInt() != VERSION) return empty();
+			long expectedChecksum = in.readLong();
+			byte[] payload = in.readAllBytes();
+			
+			CRC32 crc = new CRC32();
+			crc.update(payload);
+			if (crc.getValue() != expectedChecksum) {
+				StaticDataMod.LOGGER.warn("Ignoring corrupt staticdata index cache \""+file+"\".");
+				return empty();
+			}
+			
+			return new StaticDataCache(readPayload(new DataInputStream(new ByteArrayInputStream(payload))), expectedChecksum);
+		} catch (IOException | RuntimeException e) {
+			StaticDataMod.LOGGER.warn("Ignoring unreadable staticdata index cache \""+file+"\".", e);
+			return empty();
+		}
+	}
+	
+	private static Map<String, CachedSupplier> readPayload(DataInputStream in) throws IOException {
+		Map<String, CachedSupplier> result = new HashMap<>();
+		
+		int supplierCount = in.readInt();
+		for(int i=0; i<supplierCount; i++) {
+			String key = in.readUTF();
+			Fingerprint fingerprint = new Fingerprint(in.readLong(), in.readLong());
+			boolean isZip = in.readBoolean();
+			int entryCount = in.readInt();
+			
+			List<String> namespaces = new ArrayList<>(entryCount);
+			List<String> paths = new ArrayList<>(entryCount);
+			List<ZipPack.Entry> zipEntries = (isZip) ? new ArrayList<>(entryCount) : null;
+			for(int j=0; j<entryCount; j++) {
+				namespaces.add(in.readUTF());
+				paths.add(in.readUTF());
+				if (isZip) {
+					zipEntries.add(new ZipPack.Entry(in.readUTF(), in.readInt(), in.readInt(), in.readLong(), in.readLong(), in.readLong(), in.readLong()));
+				}
+			}
+			
+			result.put(key, new CachedSupplier(fingerprint, namespaces, paths, zipEntries));
+		}
+		
+		return result;
+	}
+	
+	/**
+	 * Writes the listings of every cacheable supplier to a cache file, replacing whatever was there. Nothing is written
+	 * if the listings are identical to the ones this cache was loaded from.
+	 * @param file the cache file
+	 * @param suppliers the suppliers to remember
+	 */
+	public void save(Path file, List<SupplierIndex<?>> suppliers) {
+		try {
+			ByteArrayOutputStream payload = new ByteArrayOutputStream();
+			writePayload(new DataOutputStream(payload), suppliers);
+			byte[] payloadBytes = payload.toByteArray();
+			
+			CRC32 crc = new CRC32();
+			crc.update(payloadBytes);
+			if (crc.getValue() == checksum) return;
+			
+			Path tempFile = file.resolveSibling(file.getFileName()+".tmp");
+			try (DataOutputStream out = new DataOutputStream(Files.newOutputStream(tempFile))) {
+				out.writeInt(MAGIC);
+				out.writeInt(VERSION);
+				out.writeLong(crc.getValue());
+				out.write(payloadBytes);
+			}
+			Files.move(tempFile, file, StandardCopyOption.REPLACE_EXISTING);
+		} catch (IOException e) {
+			StaticDataMod.LOGGER.warn("Couldn't save staticdata index cache \""+file+"\".", e);
+		}
+	}
+	
+	private static void writePayload(DataOutputStream out, List<SupplierIndex<?>> suppliers) throws IOException {
+		Map<String, SupplierIndex<?>> cacheable = new TreeMap<>();
+		Map<String, Fingerprint> fingerprints = new HashMap<>();
+		for(SupplierIndex<?> supplier : suppliers) {
+			if (!(supplier instanceof ZipSupplierIndex) && !(supplier instanceof LooseSupplierIndex)) continue;
+			Fingerprint fingerprint = Fingerprint.of(supplier.getLocation());
+			if (fingerprint == null) continue;
+			
+			String key = (supplier instanceof ZipSupplierIndex) ?
+					zipKey(supplier.getModId(), supplier.getLocation()) :
+					looseKey(supplier.getModId(), supplier.getLocation());
+			cacheable.put(key, supplier);
+			fingerprints.put(key, fingerprint);
+		}
+		
+		out.writeInt(cacheable.size());
+		for(Map.Entry<String, SupplierIndex<?>> entry : cacheable.entrySet()) {
+			Fingerprint fingerprint = fingerprints.get(entry.getKey());
+			out.writeUTF(entry.getKey());
+			out.writeLong(fingerprint.size());
+			out.writeLong(fingerprint.lastModified());
+			
+			if (entry.getValue() instanceof ZipSupplierIndex zipSupplier) {
+				out.writeBoolean(true);
+				out.writeInt(zipSupplier.entries.size());
+				for(ZipSupplierIndex.Entry zipEntry : zipSupplier.entries.values()) {
+					out.writeUTF(zipEntry.resourceId().getNamespace());
+					out.writeUTF(zipEntry.resourceId().getPath());
+					
+					ZipPack.Entry meta = zipEntry.zipEntry();
+					out.writeUTF(meta.name());
+					out.writeInt(meta.method());
+					out.writeInt(meta.flags());
+					out.writeLong(meta.crc());
+					out.writeLong(meta.compressedSize());
+					out.writeLong(meta.size());
+					out.writeLong(meta.localHeaderOffset());
+				}
+			} else if (entry.getValue() instanceof LooseSupplierIndex looseSupplier) {
+				out.writeBoolean(false);
+				out.writeInt(looseSupplier.entries.size());
+				for(Identifier resourceId : looseSupplier.entries.values()) {
+					out.writeUTF(resourceId.getNamespace());
+					out.writeUTF(resourceId.getPath());
+				}
+			}
+		}
+	}
+}
@@ -0,0 +1,45 @@
+package gay.debuggy.staticdata.impl;
+
+/**
+ * Tuning knobs for StaticData, read once from system properties, e.g. {@code -Dstaticdata.scanThreads=1}. None of these
+ * affect what data is found or the order it's listed in.
+ */
+public class StaticDataConfig {
+	/**
+	 * How many threads may be used to scan staticdata roots and packs. 1 scans everything on the calling thread.
+	 */
+	public static final int SCAN_THREADS = Math.max(1, Integer.getInteger("staticdata.scanThreads", Runtime.getRuntime().availableProcessors()));
+	
+	/**
+	 * Whether the listings of unchanged jars and packs should be remembered across launches.
+	 */
+	public static final boolean INDEX_CACHE = !"false".equals(System.getProperty("staticdata.indexCache"));
+	
+	/**
+	 * Whether to tally the cost of every supplier scan and query, and log a report once the game has started.
+	 */
+	public static final boolean PROFILE = Boolean.getBoolean("staticdata.profile");
+	
+	/**
+	 * Whether data read from raw files should also be shared with identical data from other suppliers. Data read from
+	 * packs always is.
+	 */
+	public static final boolean DEDUPLICATE_LOOSE_FILES = Boolean.getBoolean("staticdata.dedupeLooseFiles");
+	
+	/**
+	 * Whether to watch the instance staticdata folder and update the index as files in it change. Static data must not
+	 * change in production, so this is strictly for authoring data.
+	 */
+	public static final boolean DEV_MODE = Boolean.getBoolean("staticdata.devMode");
+	
+	/**
+	 * Whether to start opening staticdata packs on background threads during preLaunch, rather than on the first query.
+	 */
+	public static final boolean WARM_UP = !"false".equals(System.getProperty("staticdata.warmUp"));
+	
+	/**
+	 * How much data inflated from packs may be kept off the Java heap, in bytes, so that it isn't inflated again each
+	 * time it's read. Set in MiB; 0, the default, keeps nothing.
+	 */
+	public static final long OFF_HEAP_BUDGET = Math.max(0, Long.getLong("staticdata.offHeapBudgetMiB", 0)) * 1024 * 1024;
+}
@@ -0,0 +1,81 @@
+package gay.debuggy.staticdata.impl;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+import org.jetbrains.annotations.Nullable;
+
+import gay.debuggy.staticdata.api.StaticDataSource;
+
+/**
+ * Builds a StaticDataIndex from staticdata roots and sources. Nothing here touches the mod loader, so this is how to run
+ * StaticData headless - in benchmarks, tools and tests - as well as how {@link StaticDataLoader} builds the game's index.
+ * 
+ * <p>Data is listed in the order it was added, except that every root is listed before every source.
+ */
+public class StaticDataEngine {
+	private final List<StaticDataRoot> roots = new ArrayList<>();
+	private final List<CreditedSource> sources = new ArrayList<>();
+	private @Nullable Path cacheFile = null;
+	private @Nullable StaticDataCache loadedCache = null;
+	
+	public StaticDataEngine addRoot(String modId, Path path) {
+		roots.add(new StaticDataRoot(modId, path));
+		return this;
+	}
+	
+	public StaticDataEngine addRoots(Collection<StaticDataRoot> roots) {
+		this.roots.addAll(roots);
+		return this;
+	}
+	
+	/**
+	 * Adds a source to be listed after the roots.
+	 * @param modId the modId to credit the source's data to
+	 * @param source the source
+	 */
+	public StaticDataEngine addSource(String modId, StaticDataSource source) {
+		sources.add(new CreditedSource(modId, source));
+		return this;
+	}
+	
+	public StaticDataEngine addSources(Collection<CreditedSource> sources) {
+		this.sources.addAll(sources);
+		return this;
+	}
+	
+	/**
+	 * Remembers the listings of unchanged jars and packs in a file, so that they don't need to be scanned again the
+	 * next time the same file is used.
+	 * @param cacheFile the file to load listings from and save them to
+	 */
+	public StaticDataEngine withCacheFile(Path cacheFile) {
+		return withCacheFile(cacheFile, null);
+	}
+	
+	/**
+	 * Like {@link #withCacheFile(Path)}, but starting from a cache that was already loaded from that file.
+	 * @param cacheFile the file to save listings to
+	 * @param loadedCache the cache loaded from cacheFile, or null to load it during the scan
+	 */
+	public StaticDataEngine withCacheFile(Path cacheFile, @Nullable StaticDataCache loadedCache) {
+		this.cacheFile = cacheFile;
+		this.loadedCache = loadedCache;
+		return this;
+	}
+	
+	/**
+	 * Scans every root and lists every source.
+	 * @return an index of all the data supplied
+	 */
+	public StaticDataIndex scan() {
+		if (cacheFile == null) return StaticDataIndex.scan(roots, sources, StaticDataCache.empty());
+		
+		StaticDataCache cache = (loadedCache != null) ? loadedCache : StaticDataCache.load(cacheFile);
+		StaticDataIndex result = StaticDataIndex.scan(roots, sources, cache);
+		cache.save(cacheFile, result.getSuppliers());
+		return result;
+	}
+}
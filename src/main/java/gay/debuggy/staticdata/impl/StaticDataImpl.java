@@ -1,25 +1,29 @@
 package gay.debuggy.staticdata.impl;
 
 import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
 import java.nio.file.DirectoryStream;
+import java.nio.file.FileSystems;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.StandardOpenOption;
 import java.util.List;
 import java.util.ArrayList;
 import java.util.ArrayDeque;
-import java.util.zip.ZipEntry;
-import java.util.zip.ZipInputStream;
+import java.util.Comparator;
 
 import org.jetbrains.annotations.NotNull;
-import org.spongepowered.include.com.google.common.base.Preconditions;
+import org.jetbrains.annotations.Nullable;
 
-import gay.debuggy.staticdata.StaticDataMod;
-import gay.debuggy.staticdata.api.StaticDataItem;
+import gay.debuggy.staticdata.api.StaticDataPattern;
 import net.minecraft.util.Identifier;
 
 public class StaticDataImpl {
-	public static final boolean TRIM_BACKSLASHES = false;
+	/**
+	 * Files smaller than this are cheaper to read onto the heap than to memory-map.
+	 */
+	public static final long MIN_MAPPED_SIZE = 16 * 1024;
 	
 	private static String fileName(Path p) {
 		if (p == null) return "";
@@ -29,14 +33,18 @@ private static String fileName(Path p) {
 		return fileNamePath.toString();
 	}
 	
-	private static Identifier toIdentifier(@NotNull String namespace, @NotNull Path relativePath) {
-		Preconditions.checkNotNull(namespace);
-		Preconditions.checkNotNull(relativePath);
+	/**
+	 * Converts a path relative to a staticdata root, such as "mymod/blocks/oak.json", into an Identifier.
+	 * @param relativePath the path, whose first element is the namespace
+	 * @return the equivalent Identifier, or null if the path can't be represented as one
+	 */
+	public static @Nullable Identifier tryToIdentifier(@NotNull Path relativePath) {
+		if (relativePath.getNameCount() < 2) return null;
 		
-		StringBuilder equivalentPath = new StringBuilder();
-		for(int i=0; i<relativePath.getNameCount(); i++) {
-			if (i!=0) equivalentPath.append('/');
-			equivalentPath.append(relativePath.getName(i).toString());
+		StringBuilder path = new StringBuilder();
+		for(int i=1; i<relativePath.getNameCount(); i++) {
+			if (i!=1) path.append('/');
+			path.append(relativePath.getName(i).toString());
 		}
 		
 		/*
@@ -45,143 +53,97 @@ private static Identifier toIdentifier(@NotNull String namespace, @NotNull Path
 		 * path, we'll flip them into forward slashes. In basically every case, these two lines should do *nothing* to
 		 * the string.
 		 */
-		namespace = namespace.replace("\\", "");
-		String path = equivalentPath.toString().replace('\\', '/');
+		String namespace = relativePath.getName(0).toString().replace("\\", "");
+		return tryToIdentifier(namespace+"/"+path.toString().replace('\\', '/'));
+	}
+	
+	/**
+	 * Converts a partial path such as "mymod/blocks/oak.json" into an Identifier.
+	 * @param partialPath the path relative to a staticdata root, separated with forward slashes
+	 * @return the equivalent Identifier, or null if the path can't be represented as one
+	 */
+	public static @Nullable Identifier tryToIdentifier(@NotNull String partialPath) {
+		int separator = partialPath.indexOf('/');
+		if (separator <= 0 || separator == partialPath.length() - 1) return null;
+		
+		String namespace = partialPath.substring(0, separator);
+		String path = partialPath.substring(separator + 1);
+		if (!Identifier.isNamespaceValid(namespace) || !Identifier.isPathValid(path)) return null;
 		
 		return Identifier.of(namespace, path);
 	}
 	
-	public static void addExactData(String modId, Identifier resId, Path basePath, List<StaticDataItem> results) {
-		//Any data found as a Path will have Identifier paths relative to this path
-		Path relativePath = basePath.resolve(resId.getNamespace());
-		//This is the Path actually evaluated / enumerated for data
-		Path requestedPath = relativePath.resolve(resId.getPath());
-		
-		// List data inside packs first
-		try {
-			Files.list(basePath).forEachOrdered(subPath -> {
-				if (fileName(subPath).endsWith(".zip")) {
-					try {
-						addExactZipData(modId, resId, subPath, results);
-					} catch (IOException e) {
-						// Unlikely to error out while iterating a directory, and should just quietly not add this data.
-					}
-				}
-			});
-			
-		} catch (IOException e) {
-			// Typically getting here means no staticdata folder exists, don't throw an error and don't return data.
+	/**
+	 * Takes the name of an entry in a staticdata pack and finds its path relative to the pack's staticdata root.
+	 * @param entryName the full name of the zip entry, such as "staticdata/mymod/blocks/oak.json"
+	 * @return the normalized partial path, e.g. "mymod/blocks/oak.json", or null if the entry isn't staticdata
+	 */
+	public static @Nullable String toPartialPath(@NotNull String entryName) {
+		if (entryName.startsWith("/") || entryName.startsWith("\\")) { // Chop off any leading slashes. typically doesn't happen.
+			entryName = entryName.substring(1);
 		}
 		
-		// List standalone files
-		if (Files.exists(requestedPath) && Files.isRegularFile(requestedPath)) {
-			results.add(new PathDataItem(modId, resId, requestedPath));
-		}
+		if (!entryName.startsWith("staticdata/") && !entryName.startsWith("staticdata\\")) return null;
+		
+		return entryName.substring("staticdata/".length()).replace('\\', '/');
 	}
 	
-	public static void addDirectoryData(String modId, Identifier resId, Path basePath, boolean recursive, List<StaticDataItem> results) {
-		//Any data found as a Path will have Identifier paths relative to this path
-		Path relativePath = basePath.resolve(resId.getNamespace());
-		//This is the Path actually evaluated / enumerated for data
-		Path requestedPath = relativePath.resolve(resId.getPath());
+	/**
+	 * Gets the key used by {@link SupplierIndex} to store the file that resourceId points to.
+	 * @param resourceId the Identifier of a file
+	 * @return the key, in the form "namespace/path"
+	 */
+	public static String toIndexKey(Identifier resourceId) {
+		String basePath = resourceId.getPath();
+		if (basePath.startsWith("/")) basePath = basePath.substring(1);
 		
-		// List data inside packs first
-		if (!Files.exists(basePath)) return;
-		try {
-			Files.list(basePath).forEach(subPath -> {
-				if (!Files.isRegularFile(subPath)) return;
-				
-				if (subPath.getFileName().toString().endsWith(".zip")) {
-					try {
-						addDirectoryZipData(modId, resId, subPath, recursive, results);
-					} catch (IOException e) {
-						StaticDataMod.LOGGER.error("Couldn't add zipped staticdata.", e);
-					}
-				}
-			});
-		} catch (IOException e) {
-			StaticDataMod.LOGGER.error("There was an error enumerating data in a staticdata pack.", e);
-		}
+		return resourceId.getNamespace()+"/"+basePath;
+	}
+	
+	/**
+	 * Gets the key prefix that all files inside the directory resourceId points to will share, not including the final
+	 * slash.
+	 * @param resourceId the Identifier of a directory
+	 * @return the prefix, in the form "namespace/path" or just "namespace" for root searches
+	 */
+	public static String toDirectoryPrefix(Identifier resourceId) {
+		String basePath = resourceId.getPath();
 		
-		// List standalone files
-		if (!Files.exists(requestedPath)) return;
+		//Chop off both leading and trailing slashes
+		if (basePath.startsWith("/")) basePath = basePath.substring(1);
+		if (basePath.endsWith("/")) basePath = basePath.substring(0, basePath.length()-1);
 		
-		if (Files.isDirectory(requestedPath)) {
-			List<Path> fileList = listFiles(requestedPath, recursive);
-			
-			for(Path path : fileList) {
-				
-				if (!Files.isRegularFile(path)) return; //Don't list folders here
-				
-				Identifier resourceId = toIdentifier(modId, relativePath.relativize(path));
-				
-				PathDataItem item = new PathDataItem(modId, resourceId, path);
-				results.add(item);
-			}
-		}
+		if (basePath.isEmpty()) return resourceId.getNamespace();
+		return resourceId.getNamespace()+"/"+basePath;
 	}
 	
-	public static void addExactZipData(String modId, Identifier resId, Path zipPath, List<StaticDataItem> results) throws IOException {
-		ZipInputStream in = new ZipInputStream(Files.newInputStream(zipPath, StandardOpenOption.READ));
-		ZipEntry entry = in.getNextEntry();
-		while (entry!=null) {
-			if (!entry.isDirectory() && entry.getSize() <= Integer.MAX_VALUE) {
-			
-				String entryName = entry.getName();
-				if (entryName.startsWith("/") || entryName.startsWith("\\")) { // Chop off any leading slashes. typically doesn't happen.
-					entryName = entryName.substring(1);
-				}
-				
-				if (entryName.startsWith("staticdata/") || entryName.startsWith("staticdata\\")) {
-					entryName = entryName.substring("staticdata/".length());
-					
-					if (matchesExactFile(entryName, resId)) {
-						byte[] data = in.readNBytes((int) entry.getSize());
-						in.closeEntry();
-						
-						final String foundResourcePath = entryName.substring((resId.getNamespace()+"/").length());
-						Identifier foundResourceId = Identifier.of(resId.getNamespace(), foundResourcePath);
-						results.add(new CachedDataItem(modId, foundResourceId, data));
-					}
-				}
-				
-			}
-			
-			entry = in.getNextEntry();
-		}
-		
-		in.close();
+	/**
+	 * Checks whether a file is a staticdata pack, in either the zip or {@link SdPack sdpack} format.
+	 */
+	public static boolean isPack(Path path) {
+		String fileName = fileName(path);
+		return fileName.endsWith(".zip") || fileName.endsWith(SdPack.EXTENSION);
 	}
 	
-	public static void addDirectoryZipData(String modId, Identifier resId, Path zipPath, boolean recursive, List<StaticDataItem> results) throws IOException {
-		ZipInputStream in = new ZipInputStream(Files.newInputStream(zipPath, StandardOpenOption.READ));
-		ZipEntry entry = in.getNextEntry();
-		while (entry!=null) {
-			if (!entry.isDirectory() && entry.getSize() <= Integer.MAX_VALUE) {
-				String entryName = entry.getName();
-				if (entryName.startsWith("/") || entryName.startsWith("\\")) { // Chop off any leading slashes. typically doesn't happen.
-					entryName = entryName.substring(1);
-				}
-				
-				if (entryName.startsWith("staticdata/") || entryName.startsWith("staticdata\\")) {
-					entryName = entryName.substring("staticdata/".length());
-					
-					if (matchesDirectoryContents(entryName, resId, recursive)) {
-						byte[] data = in.readNBytes((int) entry.getSize());
-						in.closeEntry();
-						
-						final String foundResourcePath = entryName.substring((resId.getNamespace()+"/").length());
-						Identifier foundResourceId = Identifier.of(resId.getNamespace(), foundResourcePath);
-						results.add(new CachedDataItem(modId, foundResourceId, data));
-					}
-				}
-				
-			}
-			
-			entry = in.getNextEntry();
-		}
+	/**
+	 * Memory-maps a region of a file as a read-only buffer.
+	 * @param file the file to map
+	 * @param position where the region starts
+	 * @param size the length of the region
+	 * @return the mapped region, or null if the region is too small to be worth mapping or the file's filesystem
+	 *         doesn't support mapping, such as files inside a jar
+	 * @throws IOException if the file can't be read
+	 */
+	public static @Nullable ByteBuffer map(Path file, long position, long size) throws IOException {
+		if (size < MIN_MAPPED_SIZE || size > Integer.MAX_VALUE) return null;
+		if (file.getFileSystem() != FileSystems.getDefault()) return null;
 		
-		in.close();
+		// The mapping stays valid after the channel is closed
+		try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+			return channel.map(FileChannel.MapMode.READ_ONLY, position, size);
+		} catch (UnsupportedOperationException e) {
+			return null;
+		}
 	}
 	
 	/**
@@ -218,60 +180,37 @@ public static List<Path> listFiles(Path base, boolean recursive) {
 		return result;
 	}
 	
-	public static boolean matchesExactFile(String partialPath, Identifier resourceId) {
-		if (partialPath.startsWith("/")) partialPath = partialPath.substring(1);
-		String domainPart = resourceId.getNamespace()+"/";
-		String basePath = resourceId.getPath();
-		if (basePath.startsWith("/")) basePath = basePath.substring(1);
+	/**
+	 * Lists the files and folders directly inside a directory, sorted by name so that listings are stable across
+	 * platforms.
+	 * @param dir The folder to list
+	 * @return A list of all children of the directory, or an empty list if it can't be listed
+	 */
+	public static List<Path> listChildren(Path dir) {
+		ArrayList<Path> result = new ArrayList<>();
+		
+		try (DirectoryStream<Path> ls = Files.newDirectoryStream(dir)) {
+			for(Path entry : ls) result.add(entry);
+		} catch (IOException e) {
+			//We can't list the directory - either it doesn't exist or we don't have permission.
+		}
 		
-		String prefix = domainPart+basePath;
-		return (partialPath.equals(prefix));
+		result.sort(Comparator.comparing(StaticDataImpl::fileName));
+		return result;
 	}
 	
 	/**
-	 * Where partialPath is a path relative to the staticdata root, and resourceId is an Identifier pointing to a base
-	 * directory, returns whether partialPath satisfies a folder search.
-	 * @param partialPath
-	 * @param resourceId
-	 * @param recursive
-	 * @return
+	 * Where partialPath is a path relative to the staticdata root, returns whether partialPath is matched by a pattern.
+	 * @param partialPath the path to test, such as "mymod/blocks/oak.json"
+	 * @param pattern the pattern to test against
+	 * @return true if the file at partialPath is selected by the pattern
 	 */
-	public static boolean matchesDirectoryContents(String partialPath, Identifier resourceId, boolean recursive) {
+	public static boolean matchesPattern(String partialPath, StaticDataPattern pattern) {
 		if (partialPath.startsWith("/")) partialPath = partialPath.substring(1);
-		String domainPart = resourceId.getNamespace()+"/";
-		String basePath = resourceId.getPath();
 		
-		//Chop off both leading and trailing slashes
-		if (basePath.startsWith("/")) basePath = basePath.substring(1);
-		if (basePath.endsWith("/")) basePath = basePath.substring(0, basePath.length()-1);
-		
-		String prefix = domainPart+basePath;
-		if (resourceId.getPath().equals("")) prefix = prefix.substring(0, prefix.length()-1); //chop the trailing slash off on root searches
-		if (partialPath.equals(prefix)) return false; //Exact matches are wrong in this case
-		if (!partialPath.startsWith(prefix)) return false; //Non-matches get rejected
-
-		String relativePath = partialPath.substring(prefix.length());
-		if (relativePath.startsWith("/")) {
-			//This path is actually *within* the prefix
-			
-			if (recursive) return true; //if we don't care about the nesting level, we can just stop here.
-			
-			relativePath = relativePath.substring(1); //Chop off that starting slash so we can get to work
-			return !relativePath.contains("/"); // It's inside this directory and not inside a subdirectory.
-			
-		} else {
-			/* e.g.:
-			 *   resourceId  = foo:bar
-			 *   partialPath = foo/barrista/baz.json
-			 *   prefix      = foo/bar
-			 * 
-			 * which results in relativePath being "rista/baz.json".
-			 * because this doesn't start with a slash, it's not actually inside the prefix, and we want to reject
-			 * the file.
-			 */
-			
-			return false;
-		}
+		int separator = partialPath.indexOf('/');
+		if (separator == -1) return false; //Not inside a namespace
 		
+		return pattern.matches(partialPath.substring(0, separator), partialPath.substring(separator + 1));
 	}
 }
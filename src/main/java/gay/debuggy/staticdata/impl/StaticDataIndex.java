@@ -0,0 +1,402 @@
+package gay.debuggy.staticdata.impl;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
+
+import org.jetbrains.annotations.Nullable;
+
+import com.google.gson.JsonParseException;
+import com.google.gson.JsonParser;
+import com.mojang.serialization.Codec;
+import com.mojang.serialization.DataResult;
+import com.mojang.serialization.JsonOps;
+
+import gay.debuggy.staticdata.StaticDataMod;
+import gay.debuggy.staticdata.api.DecodedStaticData;
+import gay.debuggy.staticdata.api.DirectoryQuery;
+import gay.debuggy.staticdata.api.StaticDataItem;
+import gay.debuggy.staticdata.api.StaticDataOverrideListener;
+import gay.debuggy.staticdata.api.StaticDataPattern;
+import gay.debuggy.staticdata.api.StaticDataSource;
+import net.minecraft.util.Identifier;
+
+/**
+ * An immutable index of every staticdata file supplied by a set of staticdata roots. Since static data cannot change
+ * after launch, the roots are scanned exactly once and all queries are answered from memory.
+ * 
+ * <p>Suppliers are kept in listing order: for each root, its staticdata packs (sorted by file name), then its raw
+ * files. Within a supplier, files are listed in path order.
+ */
+public class StaticDataIndex {
+	private final List<SupplierIndex<?>> suppliers;
+	
+	/**
+	 * Decoded values, by Codec and then by what they were decoded from. Nothing is ever removed, so every value decoded
+	 * through this index stays reachable until the index itself is dropped.
+	 */
+	private final Map<Codec<?>, Map<DecodeKey, DecodedStaticData<?>>> decoded = new ConcurrentHashMap<>();
+	
+	/**
+	 * What a decoded value depends on. Keying on these values rather than on the item means items from separate
+	 * queries share results whatever kind of item they are, and a file whose data changed is decoded again.
+	 */
+	private record DecodeKey(String modId, Identifier resourceId, long contentFingerprint) {}
+	
+	/**
+	 * Every key supplied by any supplier, so that lookups for data nobody supplies don't need to visit any of them.
+	 */
+	private final KeyFilter filter;
+	
+	public StaticDataIndex(List<SupplierIndex<?>> suppliers) {
+		this.suppliers = List.copyOf(suppliers);
+		this.filter = KeyFilter.of(this.suppliers);
+	}
+	
+	public List<SupplierIndex<?>> getSuppliers() {
+		return suppliers;
+	}
+	
+	public List<StaticDataItem> getExactData(Identifier resourceId) {
+		long hash = KeyFilter.hash(StaticDataImpl.toIndexKey(resourceId));
+		if (!filter.mightContain(hash)) return List.of();
+		
+		List<StaticDataItem> result = new ArrayList<>();
+		for(SupplierIndex<?> supplier : suppliers) {
+			if (supplier.getFilter().mightContain(hash)) supplier.addExactData(resourceId, result);
+		}
+		
+		return List.copyOf(result);
+	}
+	
+	/**
+	 * Checks whether any supplier supplies a file, without creating any items.
+	 */
+	public boolean containsData(Identifier resourceId) {
+		String key = StaticDataImpl.toIndexKey(resourceId);
+		long hash = KeyFilter.hash(key);
+		if (!filter.mightContain(hash)) return false;
+		
+		for(SupplierIndex<?> supplier : suppliers) {
+			if (supplier.getFilter().mightContain(hash) && supplier.containsKey(key)) return true;
+		}
+		
+		return false;
+	}
+	
+	public List<StaticDataItem> getDataInDirectory(Identifier resourceId, boolean recursive) {
+		List<StaticDataItem> result = new ArrayList<>();
+		for(SupplierIndex<?> supplier : suppliers) {
+			supplier.addDirectoryData(resourceId, recursive, result);
+		}
+		
+		return List.copyOf(result);
+	}
+	
+	/**
+	 * Lists one item per file in a directory: the copy from the supplier listed last. Only entry metadata is used to
+	 * decide, so shadowed copies are never read.
+	 * @param listener told about each file supplied more than once, or null
+	 * @return an immutable list of the winning items, in path order
+	 */
+	public List<StaticDataItem> getOverlaidDataInDirectory(Identifier resourceId, boolean recursive, @Nullable StaticDataOverrideListener listener) {
+		NavigableMap<String, StaticDataItem> winners = new TreeMap<>();
+		Map<String, List<StaticDataItem>> overridden = (listener != null) ? new HashMap<>() : null;
+		
+		// Walk the suppliers from last to first, so each file's winner is the first copy seen
+		for(int i=suppliers.size()-1; i>=0; i--) {
+			suppliers.get(i).streamDirectoryData(resourceId, recursive).forEachOrdered(item -> {
+				String key = StaticDataImpl.toIndexKey(item.getResourceId());
+				if (winners.putIfAbsent(key, item) != null && overridden != null) {
+					overridden.computeIfAbsent(key, it -> new ArrayList<>()).add(item);
+				}
+			});
+		}
+		
+		if (listener != null) {
+			for(Map.Entry<String, StaticDataItem> winner : winners.entrySet()) {
+				List<StaticDataItem> losers = overridden.get(winner.getKey());
+				if (losers == null) continue;
+				
+				Collections.reverse(losers);
+				listener.onOverridden(winner.getValue(), List.copyOf(losers));
+			}
+		}
+		
+		return List.copyOf(winners.values());
+	}
+	
+	/**
+	 * Lists the data in several directories, making a single pass over each supplier.
+	 * @return one immutable list per query, in the same order as queries, each identical to what
+	 *         {@link #getDataInDirectory(Identifier, boolean)} would return for that query
+	 */
+	public List<List<StaticDataItem>> getDataInDirectories(List<DirectoryQuery> queries) {
+		List<List<StaticDataItem>> results = new ArrayList<>();
+		for(int i=0; i<queries.size(); i++) results.add(new ArrayList<>());
+		
+		for(SupplierIndex<?> supplier : suppliers) {
+			supplier.addDirectoryData(queries, results);
+		}
+		
+		return results.stream().map(List::copyOf).toList();
+	}
+	
+	/**
+	 * Lazily lists the data in a directory, in listing order. Items are only created as the stream reaches them, so
+	 * nothing is held on to for items that have already been passed.
+	 */
+	public Stream<StaticDataItem> streamDataInDirectory(Identifier resourceId, boolean recursive) {
+		return suppliers.stream().flatMap(supplier -> supplier.streamDirectoryData(resourceId, recursive));
+	}
+	
+	/**
+	 * Lazily lists the data selected by a pattern, in listing order.
+	 */
+	public Stream<StaticDataItem> streamMatchingData(StaticDataPattern pattern) {
+		return suppliers.stream().flatMap(supplier -> supplier.streamMatchingData(pattern));
+	}
+	
+	/**
+	 * Parses each item as JSON and decodes it with a Codec, in parallel. Results are remembered for as long as this
+	 * index is in use - for the whole game, outside of development mode - so decoding the same items with the same Codec
+	 * again costs nothing, but every decoded value is held in memory until then.
+	 * @param items the items to decode
+	 * @param codec the Codec to decode each item with
+	 * @return one result per item, in the same order as the items
+	 */
+	public <T> List<DecodedStaticData<T>> decode(List<StaticDataItem> items, Codec<T> codec) {
+		return decode(items, codec, true);
+	}
+	
+	/**
+	 * Parses each item as JSON and decodes it with a Codec, in parallel.
+	 * @param items the items to decode
+	 * @param codec the Codec to decode each item with
+	 * @param remember true to share results with every other remembered decode of the same items with the same Codec,
+	 *                 keeping them in memory for as long as this index is in use. false decodes every item afresh, and
+	 *                 keeps nothing, though results remembered earlier are still reused.
+	 * @return one result per item, in the same order as the items
+	 */
+	@SuppressWarnings("unchecked")
+	public <T> List<DecodedStaticData<T>> decode(List<StaticDataItem> items, Codec<T> codec, boolean remember) {
+		Map<DecodeKey, DecodedStaticData<?>> memo = (remember) ? decoded.computeIfAbsent(codec, it -> new ConcurrentHashMap<>()) : decoded.get(codec);
+		if (memo == null) return items.parallelStream().map(item -> decode(item, codec)).toList();
+		
+		return items.parallelStream()
+				.map(item -> {
+					DecodeKey key = getDecodeKey(item);
+					if (key == null) return decode(item, codec); // Reports why the item can't be read
+					
+					DecodedStaticData<?> result = memo.get(key);
+					if (result == null) {
+						result = decode(item, codec);
+						if (remember) {
+							// Two threads may decode the same item at once, but only the first result is ever handed out
+							DecodedStaticData<?> existing = memo.putIfAbsent(key, result);
+							if (existing != null) result = existing;
+						}
+					}
+					return (DecodedStaticData<T>) result;
+				})
+				.toList();
+	}
+	
+	private static @Nullable DecodeKey getDecodeKey(StaticDataItem item) {
+		try {
+			return new DecodeKey(item.getModId(), item.getResourceId(), item.getContentFingerprint());
+		} catch (IOException e) {
+			return null;
+		}
+	}
+	
+	private static <T> DecodedStaticData<T> decode(StaticDataItem item, Codec<T> codec) {
+		DataResult<T> result;
+		try {
+			result = codec.parse(JsonOps.INSTANCE, JsonParser.parseString(item.getAsString()));
+		} catch (IOException | JsonParseException e) {
+			result = DataResult.error(() -> "Couldn't read staticdata file \""+item.getResourceId()+"\" supplied by "+item.getModId()+": "+e.getMessage());
+		}
+		
+		return new DecodedStaticData<>(item.getModId(), item.getResourceId(), result);
+	}
+	
+	/**
+	 * Scans the given staticdata roots and builds an index of everything they contain. Roots and packs are scanned in
+	 * parallel according to {@link StaticDataConfig#SCAN_THREADS}, but the resulting supplier order is always the same
+	 * as scanning them one after another.
+	 * @param roots the staticdata roots to scan, in listing order. Roots which don't exist are skipped.
+	 * @return an index of all the data supplied by the roots
+	 */
+	public static StaticDataIndex scan(List<StaticDataRoot> roots) {
+		return scan(roots, List.of(), StaticDataCache.empty());
+	}
+	
+	/**
+	 * Scans the given staticdata roots and builds an index of everything they contain, reusing the cached listings of
+	 * any suppliers which haven't changed.
+	 * @param roots the staticdata roots to scan, in listing order. Roots which don't exist are skipped.
+	 * @param cache listings remembered from a previous scan
+	 * @return an index of all the data supplied by the roots
+	 */
+	public static StaticDataIndex scan(List<StaticDataRoot> roots, StaticDataCache cache) {
+		return scan(roots, List.of(), cache);
+	}
+	
+	/**
+	 * Scans the given staticdata roots, then lists the given sources, and builds an index of everything they contain.
+	 * @param roots the staticdata roots to scan, in listing order. Roots which don't exist are skipped.
+	 * @param sources the sources to list after the roots, in listing order
+	 * @param cache listings remembered from a previous scan
+	 * @return an index of all the data supplied by the roots and sources
+	 */
+	public static StaticDataIndex scan(List<StaticDataRoot> roots, List<CreditedSource> sources, StaticDataCache cache) {
+		if (StaticDataConfig.SCAN_THREADS == 1) return scan(roots, sources, cache, Runnable::run);
+		
+		ExecutorService executor = Executors.newFixedThreadPool(StaticDataConfig.SCAN_THREADS, task -> {
+			Thread thread = new Thread(task, "StaticData Scanner");
+			thread.setDaemon(true);
+			return thread;
+		});
+		try {
+			return scan(roots, sources, cache, executor);
+		} finally {
+			executor.shutdown();
+		}
+	}
+	
+	private static StaticDataIndex scan(List<StaticDataRoot> roots, List<CreditedSource> sources, StaticDataCache cache, Executor executor) {
+		long start = System.nanoTime();
+		
+		// Find every supplier first, so that they can all be scanned at once and then reassembled in order
+		List<CompletableFuture<List<Supplier<SupplierIndex<?>>>>> rootListings = new ArrayList<>();
+		for(StaticDataRoot root : roots) {
+			rootListings.add(CompletableFuture.supplyAsync(() -> listSuppliers(root, cache), executor));
+		}
+		
+		List<CompletableFuture<SupplierIndex<?>>> supplierScans = new ArrayList<>();
+		for(CompletableFuture<List<Supplier<SupplierIndex<?>>>> listing : rootListings) {
+			for(Supplier<SupplierIndex<?>> task : listing.join()) {
+				supplierScans.add(CompletableFuture.supplyAsync(() -> scanWithFilter(task), executor));
+			}
+		}
+		
+		for(CreditedSource source : sources) {
+			Supplier<SupplierIndex<?>> task = () -> StaticDataProfiler.profileScan(() -> scanSource(source));
+			if (source.source().getCapabilities().contains(StaticDataSource.Capability.INDEXED)) {
+				supplierScans.add(CompletableFuture.completedFuture(scanWithFilter(task)));
+			} else {
+				supplierScans.add(CompletableFuture.supplyAsync(() -> scanWithFilter(task), executor));
+			}
+		}
+		
+		List<SupplierIndex<?>> suppliers = new ArrayList<>();
+		for(CompletableFuture<SupplierIndex<?>> scan : supplierScans) {
+			SupplierIndex<?> supplier = scan.join();
+			if (supplier != null) suppliers.add(supplier);
+		}
+		
+		StaticDataIndex result = new StaticDataIndex(suppliers);
+		StaticDataProfiler.recordIndexBuilt(System.nanoTime() - start);
+		return result;
+	}
+	
+	/**
+	 * Runs a supplier scan, then builds the supplier's filter alongside it rather than on the first query.
+	 */
+	private static @Nullable SupplierIndex<?> scanWithFilter(Supplier<SupplierIndex<?>> task) {
+		try {
+			SupplierIndex<?> supplier = task.get();
+			if (supplier != null) supplier.getFilter();
+			return supplier;
+		} catch (RuntimeException e) {
+			// One unreadable supplier shouldn't take the rest of the index down with it
+			StaticDataMod.LOGGER.error("Couldn't add a staticdata supplier.", e);
+			return null;
+		}
+	}
+	
+	/**
+	 * Lists a source's entries, or uses it as-is if it's already one of our own suppliers.
+	 * @return the source's index, or null if it can't be read
+	 */
+	private static @Nullable SupplierIndex<?> scanSource(CreditedSource credited) {
+		if (credited.source() instanceof SupplierIndex<?> supplier && supplier.getModId().equals(credited.modId())) return supplier;
+		
+		try {
+			return SourceSupplierIndex.scan(credited.modId(), credited.source());
+		} catch (IOException | RuntimeException e) {
+			StaticDataMod.LOGGER.error("Couldn't add staticdata from source "+credited.source()+" registered by "+credited.modId()+".", e);
+			return null;
+		}
+	}
+	
+	/**
+	 * Lists the suppliers inside a staticdata root, in listing order: its packs, then its raw files.
+	 * @return one task per supplier, which will scan that supplier when called, or return null if it can't be read
+	 */
+	private static List<Supplier<SupplierIndex<?>>> listSuppliers(StaticDataRoot root, StaticDataCache cache) {
+		List<Supplier<SupplierIndex<?>>> result = new ArrayList<>();
+		if (!Files.isDirectory(root.path())) return result;
+		
+		// List data inside packs first
+		for(Path subPath : StaticDataImpl.listChildren(root.path())) {
+			if (!Files.isRegularFile(subPath) || !StaticDataImpl.isPack(subPath)) continue;
+			
+			if (subPath.getFileName().toString().endsWith(SdPack.EXTENSION)) {
+				result.add(() -> StaticDataProfiler.profileScan(() -> {
+					SdPack opened = PackWarmUp.takeSdPack(subPath);
+					if (opened != null) return new SdPackSupplierIndex(root.modId(), opened);
+					
+					try {
+						return SdPackSupplierIndex.open(root.modId(), subPath);
+					} catch (IOException | RuntimeException e) {
+						StaticDataMod.LOGGER.error("Couldn't add packed staticdata from \""+subPath+"\".", e);
+						return null;
+					}
+				}));
+				continue;
+			}
+			
+			result.add(() -> {
+				ZipPack opened = PackWarmUp.takeZipPack(subPath);
+				return StaticDataProfiler.profileScan(opened, () -> {
+					// A cached listing beats even a pack the warm-up opened, whose entries would still need listing
+					ZipSupplierIndex cached = cache.getZip(root.modId(), subPath);
+					if (cached != null) return cached;
+					
+					if (opened != null) return ZipSupplierIndex.scan(root.modId(), opened);
+					
+					try {
+						return ZipSupplierIndex.scan(root.modId(), subPath);
+					} catch (IOException | RuntimeException e) {
+						StaticDataMod.LOGGER.error("Couldn't add zipped staticdata from \""+subPath+"\".", e);
+						return null;
+					}
+				});
+			});
+		}
+		
+		// Then standalone files
+		result.add(() -> StaticDataProfiler.profileScan(() -> {
+			LooseSupplierIndex cached = cache.getLoose(root.modId(), root.path());
+			return (cached != null) ? cached : LooseSupplierIndex.scan(root.modId(), root.path());
+		}));
+		
+		return result;
+	}
+}
@@ -0,0 +1,137 @@
+package gay.debuggy.staticdata.impl;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import gay.debuggy.staticdata.StaticDataMod;
+import gay.debuggy.staticdata.api.StaticData;
+import gay.debuggy.staticdata.api.StaticDataChangeListener;
+import gay.debuggy.staticdata.api.StaticDataSource;
+import gay.debuggy.staticdata.api.StaticDataSourceProvider;
+import net.fabricmc.loader.api.FabricLoader;
+import net.fabricmc.loader.api.ModContainer;
+import net.fabricmc.loader.api.entrypoint.EntrypointContainer;
+import net.minecraft.util.Identifier;
+
+/**
+ * Owns the index behind {@link StaticData}: builds it exactly once, on the first query, and publishes it for every later
+ * query. Packs may be opened ahead of time by the {@link PackWarmUp warm-up}.
+ */
+public class StaticDataLoader {
+	private static final Set<String> FORBIDDEN_CONTAINERS = Set.of( "java", "minecraft" );
+	
+	/**
+	 * Every piece of static data visible to this instance, scanned on the first query.
+	 */
+	private static final LazyIndex INDEX = new LazyIndex(StaticDataLoader::scan);
+	
+	private static final List<StaticDataChangeListener> CHANGE_LISTENERS = new CopyOnWriteArrayList<>();
+	
+	/**
+	 * Gets the index, scanning for it on the calling thread if nobody has started a scan yet, or waiting for the scan
+	 * already in progress.
+	 */
+	public static StaticDataIndex getIndex() {
+		return INDEX.get();
+	}
+	
+	/**
+	 * Starts opening every staticdata pack on background threads, so that by the time the first query arrives its scan
+	 * only has to list them. Only the filesystem is touched; Identifiers are built, and sources listed, by the scan.
+	 */
+	public static void startInBackground() {
+		PackWarmUp.start(getStaticDataRoots(), (StaticDataConfig.INDEX_CACHE) ? getCacheFile() : null);
+	}
+	
+	private static StaticDataIndex scan() {
+		PackWarmUp.await();
+		StaticDataEngine engine = new StaticDataEngine()
+				.addRoots(getStaticDataRoots())
+				.addSources(getProvidedSources());
+		if (StaticDataConfig.INDEX_CACHE) engine.withCacheFile(getCacheFile(), PackWarmUp.takeCache());
+		StaticDataIndex scanned = engine.scan();
+		PackWarmUp.clear();
+		
+		if (StaticDataConfig.DEV_MODE) StaticDataWatcher.start("file", StaticData.getStaticDataDir(), scanned, StaticDataLoader::publishChanges);
+		return scanned;
+	}
+	
+	private static Path getCacheFile() {
+		return FabricLoader.getInstance().getGameDir().resolve("staticdata-index.cache");
+	}
+	
+	public static void addChangeListener(StaticDataChangeListener listener) {
+		CHANGE_LISTENERS.add(listener);
+	}
+	
+	public static void removeChangeListener(StaticDataChangeListener listener) {
+		CHANGE_LISTENERS.remove(listener);
+	}
+	
+	private static void publishChanges(StaticDataIndex updated, Set<Identifier> changedIds) {
+		INDEX.set(updated);
+		
+		for(StaticDataChangeListener listener : CHANGE_LISTENERS) {
+			try {
+				listener.onStaticDataChanged(changedIds);
+			} catch (RuntimeException e) {
+				StaticDataMod.LOGGER.error("Staticdata change listener "+listener+" failed.", e);
+			}
+		}
+	}
+	
+	/**
+	 * Gets every staticdata root visible to this instance, in listing order: the roots of each mod in the order the
+	 * mod loader reports them, then the staticdata folder in the game directory. Registered sources are listed after
+	 * all of these.
+	 */
+	private static List<StaticDataRoot> getStaticDataRoots() {
+		List<StaticDataRoot> result = new ArrayList<>();
+		
+		for(ModContainer container : FabricLoader.getInstance().getAllMods()) {
+			if (FORBIDDEN_CONTAINERS.contains(container.getMetadata().getId())) continue;
+			
+			for(Path p : container.getRootPaths()) {
+				result.add(new StaticDataRoot(container.getMetadata().getId(), p.resolve("staticdata")));
+			}
+		}
+		
+		Path saticDataDir = StaticData.getStaticDataDir();
+		if (!Files.exists(saticDataDir)) {
+			try {
+				Files.createDirectory(saticDataDir);
+			} catch (IOException e) {
+				// Creating the directory is a nice-to-have but we don't really care if it fails.
+			}
+		}
+		// Listed even if it's empty, so that the watcher knows where its data goes among the registered sources
+		result.add(new StaticDataRoot("file", saticDataDir));
+		
+		return result;
+	}
+	
+	/**
+	 * Gets the sources registered by every "staticdata" entrypoint, in the order the mod loader reports them.
+	 */
+	private static List<CreditedSource> getProvidedSources() {
+		List<CreditedSource> result = new ArrayList<>();
+		
+		for(EntrypointContainer<StaticDataSourceProvider> container : FabricLoader.getInstance().getEntrypointContainers("staticdata", StaticDataSourceProvider.class)) {
+			String modId = container.getProvider().getMetadata().getId();
+			try {
+				for(StaticDataSource source : container.getEntrypoint().getSources()) {
+					result.add(new CreditedSource(modId, source));
+				}
+			} catch (RuntimeException e) {
+				StaticDataMod.LOGGER.error("Couldn't get staticdata sources from "+modId+".", e);
+			}
+		}
+		
+		return result;
+	}
+}
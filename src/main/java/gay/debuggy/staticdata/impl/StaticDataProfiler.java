@@ -0,0 +1,226 @@
+package gay.debuggy.staticdata.impl;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+import java.util.function.ToIntFunction;
+import java.util.stream.Stream;
+
+import org.jetbrains.annotations.Nullable;
+
+import gay.debuggy.staticdata.StaticDataMod;
+import gay.debuggy.staticdata.api.StaticDataItem;
+
+/**
+ * Measures what StaticData costs during startup. Every supplier scan and every query is reported to JFR when a
+ * recording has the StaticData events enabled, and, if {@link StaticDataConfig#PROFILE} is set, is also tallied for a
+ * report logged once the game has finished starting.
+ * 
+ * <p>When neither is enabled, the only cost is checking whether the JFR events are enabled.
+ */
+public class StaticDataProfiler {
+	private static final ConcurrentLinkedQueue<SupplierStats> SUPPLIERS = new ConcurrentLinkedQueue<>();
+	private static final Map<String, QueryStats> QUERIES = new ConcurrentHashMap<>();
+	private static final AtomicBoolean REPORTED = new AtomicBoolean(false);
+	private static volatile long indexNanos = 0;
+	
+	private record SupplierStats(SupplierIndex<?> supplier, long nanos, long bytesInflated) {}
+	
+	private static class QueryStats {
+		final LongAdder count = new LongAdder();
+		final LongAdder nanos = new LongAdder();
+		final LongAdder results = new LongAdder();
+	}
+	
+	/**
+	 * Runs and measures the scan of a single supplier.
+	 * @param scan the scan to run, which may return null if the supplier can't be read
+	 * @return the result of the scan
+	 */
+	public static SupplierIndex<?> profileScan(Supplier<SupplierIndex<?>> scan) {
+		return profileScan(null, scan);
+	}
+	
+	/**
+	 * Runs and measures the scan of a single supplier, which may reuse a pack that was opened before the scan started.
+	 * Only the data that pack inflates during the scan is counted, not what it read earlier or reads for later queries.
+	 * @param openedPack the pack the scan may reuse, or null if it opens its own
+	 * @param scan the scan to run, which may return null if the supplier can't be read
+	 * @return the result of the scan
+	 */
+	public static SupplierIndex<?> profileScan(@Nullable ZipPack openedPack, Supplier<SupplierIndex<?>> scan) {
+		StaticDataScanEvent event = new StaticDataScanEvent();
+		if (!StaticDataConfig.PROFILE && !event.isEnabled()) return scan.get();
+		
+		long bytesBefore = (openedPack != null) ? openedPack.getBytesInflated() : 0;
+		long start = System.nanoTime();
+		event.begin();
+		SupplierIndex<?> result = scan.get();
+		event.end();
+		long nanos = System.nanoTime() - start;
+		if (result == null) return null;
+		
+		// A pack the scan opened itself hadn't read anything before it started
+		long bytesInflated = 0;
+		if (result instanceof ZipSupplierIndex zipSupplier) {
+			ZipPack pack = zipSupplier.getPack();
+			bytesInflated = pack.getBytesInflated() - ((pack == openedPack) ? bytesBefore : 0);
+		}
+		
+		if (event.shouldCommit()) {
+			event.modId = result.getModId();
+			event.location = location(result);
+			event.kind = kind(result);
+			event.entriesExamined = (result instanceof ZipSupplierIndex zipSupplier) ? zipSupplier.getPack().getEntriesExamined() : result.size();
+			event.entriesIndexed = result.size();
+			event.bytesInflated = bytesInflated;
+			event.commit();
+		}
+		
+		if (StaticDataConfig.PROFILE) SUPPLIERS.add(new SupplierStats(result, nanos, bytesInflated));
+		
+		return result;
+	}
+	
+	/**
+	 * Runs and measures a query.
+	 * @param queryType the name of the public method being called
+	 * @param query the Identifier or pattern being queried for
+	 * @param runQuery the query itself
+	 * @return the results of the query
+	 */
+	public static List<StaticDataItem> profileQuery(String queryType, Object query, Supplier<List<StaticDataItem>> runQuery) {
+		return profileQuery(queryType, query, runQuery, List::size);
+	}
+	
+	/**
+	 * Runs and measures a query whose results aren't a simple list of items.
+	 * @param queryType the name of the public method being called
+	 * @param query the Identifier or pattern being queried for
+	 * @param runQuery the query itself
+	 * @param countResults finds how many items the query returned in total
+	 * @return the results of the query
+	 */
+	public static <T> T profileQuery(String queryType, Object query, Supplier<T> runQuery, ToIntFunction<T> countResults) {
+		StaticDataQueryEvent event = new StaticDataQueryEvent();
+		if (!StaticDataConfig.PROFILE && !event.isEnabled()) return runQuery.get();
+		
+		long start = System.nanoTime();
+		event.begin();
+		T result = runQuery.get();
+		record(event, queryType, query, start, countResults.applyAsInt(result));
+		
+		return result;
+	}
+	
+	/**
+	 * Measures a query that returns a lazy stream. The query is measured from when the stream is created until it's
+	 * closed, counting every item the stream reaches; streams that are never closed are never reported.
+	 * @param queryType the name of the public method being called
+	 * @param query the Identifier or pattern being queried for
+	 * @param runQuery creates the stream
+	 * @return the stream, which reports the query once it's closed
+	 */
+	public static <T> Stream<T> profileStream(String queryType, Object query, Supplier<Stream<T>> runQuery) {
+		StaticDataQueryEvent event = new StaticDataQueryEvent();
+		if (!StaticDataConfig.PROFILE && !event.isEnabled()) return runQuery.get();
+		
+		long start = System.nanoTime();
+		event.begin();
+		LongAdder results = new LongAdder();
+		AtomicBoolean closed = new AtomicBoolean(false);
+		return runQuery.get()
+				.peek(it -> results.increment())
+				.onClose(() -> {
+					if (closed.compareAndSet(false, true)) record(event, queryType, query, start, results.intValue());
+				});
+	}
+	
+	private static void record(StaticDataQueryEvent event, String queryType, Object query, long start, int results) {
+		event.end();
+		long nanos = System.nanoTime() - start;
+		
+		if (event.shouldCommit()) {
+			event.queryType = queryType;
+			event.query = String.valueOf(query);
+			event.results = results;
+			event.commit();
+		}
+		
+		if (StaticDataConfig.PROFILE) {
+			QueryStats stats = QUERIES.computeIfAbsent(queryType+" "+query, it -> new QueryStats());
+			stats.count.increment();
+			stats.nanos.add(nanos);
+			stats.results.add(results);
+		}
+	}
+	
+	/**
+	 * Records how long it took to build the whole index, including waiting on every supplier scan.
+	 */
+	public static void recordIndexBuilt(long nanos) {
+		indexNanos = nanos;
+	}
+	
+	/**
+	 * Logs the startup cost report, if profiling is enabled. Only the first call does anything.
+	 */
+	public static void logReport() {
+		if (!StaticDataConfig.PROFILE || !REPORTED.compareAndSet(false, true)) return;
+		
+		List<SupplierStats> suppliers = new ArrayList<>(SUPPLIERS);
+		long totalEntries = suppliers.stream().mapToLong(it -> it.supplier().size()).sum();
+		StaticDataMod.LOGGER.info(String.format("Indexed %d staticdata suppliers (%d files) in %.1f ms.", suppliers.size(), totalEntries, indexNanos / 1_000_000.0));
+		
+		suppliers.sort(Comparator.comparingLong(SupplierStats::nanos).reversed());
+		StaticDataMod.LOGGER.info("Slowest staticdata suppliers to scan:");
+		for(SupplierStats stats : suppliers.subList(0, Math.min(10, suppliers.size()))) {
+			StaticDataMod.LOGGER.info(String.format("  %8.2f ms  %-24s %-6s %6d files  %s", stats.nanos() / 1_000_000.0, stats.supplier().getModId(), kind(stats.supplier()), stats.supplier().size(), location(stats.supplier())));
+		}
+		
+		suppliers.sort(Comparator.comparingLong(SupplierStats::bytesInflated).reversed());
+		if (!suppliers.isEmpty() && suppliers.get(0).bytesInflated() > 0) {
+			StaticDataMod.LOGGER.info("Staticdata packs with the most data read:");
+			for(SupplierStats stats : suppliers.subList(0, Math.min(10, suppliers.size()))) {
+				if (stats.bytesInflated() == 0) break;
+				StaticDataMod.LOGGER.info(String.format("  %8d KiB  %-24s %s", stats.bytesInflated() / 1024, stats.supplier().getModId(), location(stats.supplier())));
+			}
+		}
+		
+		if (PayloadStore.getBytesShared() > 0) {
+			StaticDataMod.LOGGER.info(String.format("Identical staticdata shared between suppliers saved %d KiB.", PayloadStore.getBytesShared() / 1024));
+		}
+		
+		if (OffHeapPayloadStore.isEnabled()) {
+			StaticDataMod.LOGGER.info(String.format("Off-heap staticdata store holds %d KiB of %d KiB, and has evicted %d KiB.", OffHeapPayloadStore.getBytesStored() / 1024, StaticDataConfig.OFF_HEAP_BUDGET / 1024, OffHeapPayloadStore.getBytesEvicted() / 1024));
+		}
+		
+		List<Map.Entry<String, QueryStats>> queries = new ArrayList<>(QUERIES.entrySet());
+		queries.sort(Comparator.comparingLong((Map.Entry<String, QueryStats> it) -> it.getValue().nanos.sum()).reversed());
+		StaticDataMod.LOGGER.info("Most expensive staticdata queries:");
+		for(Map.Entry<String, QueryStats> query : queries.subList(0, Math.min(10, queries.size()))) {
+			QueryStats stats = query.getValue();
+			StaticDataMod.LOGGER.info(String.format("  %8.2f ms  %4dx  %6d results  %s", stats.nanos.sum() / 1_000_000.0, stats.count.sum(), stats.results.sum(), query.getKey()));
+		}
+	}
+	
+	/**
+	 * Describes where a supplier's data comes from. Sources registered in code may not have a location, so they're
+	 * described by the source itself.
+	 */
+	private static String location(SupplierIndex<?> supplier) {
+		if (supplier.getLocation() != null) return supplier.getLocation().toString();
+		return (supplier instanceof SourceSupplierIndex sourceSupplier) ? String.valueOf(sourceSupplier.getSource()) : supplier.getModId();
+	}
+	
+	private static String kind(SupplierIndex<?> supplier) {
+		if (supplier instanceof SourceSupplierIndex) return "source";
+		return (supplier instanceof LooseSupplierIndex) ? "loose" : "pack";
+	}
+}
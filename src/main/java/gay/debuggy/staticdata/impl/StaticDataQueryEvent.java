@@ -0,0 +1,25 @@
+package gay.debuggy.staticdata.impl;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * JFR event recorded for each query made through {@link gay.debuggy.staticdata.api.StaticData StaticData}.
+ */
+@Name("gay.debuggy.staticdata.Query")
+@Label("Static Data Query")
+@Category("StaticData")
+@Description("A request for static data, including any time spent waiting for the first scan. Streams are measured until they're closed.")
+public class StaticDataQueryEvent extends jdk.jfr.Event {
+	@Label("Query Type")
+	@Description("getExactData, getDataInDirectory, etc.")
+	public String queryType;
+	
+	@Label("Query")
+	public String query;
+	
+	@Label("Results")
+	public int results;
+}
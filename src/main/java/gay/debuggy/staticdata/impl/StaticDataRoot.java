@@ -0,0 +1,11 @@
+package gay.debuggy.staticdata.impl;
+
+import java.nio.file.Path;
+
+/**
+ * A staticdata root folder along with the modId its data will be credited to.
+ * @param modId the modId of the supplier, or "file" for the instance staticdata folder
+ * @param path the staticdata folder itself, e.g. {@code <mod root>/staticdata}
+ */
+public record StaticDataRoot(String modId, Path path) {
+}
@@ -0,0 +1,37 @@
+package gay.debuggy.staticdata.impl;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * JFR event recorded each time a single supplier - one pack, or the raw files of one staticdata root - is scanned.
+ */
+@Name("gay.debuggy.staticdata.SupplierScan")
+@Label("Static Data Supplier Scan")
+@Category("StaticData")
+@Description("Listing the contents of one staticdata pack or folder")
+public class StaticDataScanEvent extends jdk.jfr.Event {
+	@Label("Mod Id")
+	public String modId;
+	
+	@Label("Location")
+	public String location;
+	
+	@Label("Kind")
+	@Description("\"pack\" for staticdata packs, \"loose\" for raw files, \"source\" for sources registered in code")
+	public String kind;
+	
+	@Label("Entries Examined")
+	public int entriesExamined;
+	
+	@Label("Entries Indexed")
+	public int entriesIndexed;
+	
+	@Label("Bytes Inflated")
+	@Description("Data decompressed during the scan, such as a pack nested in a mod jar being read out of the jar")
+	@DataAmount
+	public long bytesInflated;
+}
@@ -0,0 +1,269 @@
+package gay.debuggy.staticdata.impl;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.function.BiConsumer;
+import java.util.stream.Stream;
+
+import org.jetbrains.annotations.Nullable;
+
+import gay.debuggy.staticdata.StaticDataMod;
+import net.minecraft.util.Identifier;
+
+/**
+ * Keeps an index up to date with one staticdata root - the instance staticdata folder - while
+ * {@link StaticDataConfig#DEV_MODE development mode} is on.
+ * 
+ * <p>Only the suppliers that live in the root are ever touched. A changed pack is listed again; a changed raw file or
+ * folder only updates the entries at or under it. Every other supplier is carried over to the new index as-is.
+ */
+public class StaticDataWatcher implements Runnable {
+	/**
+	 * How long to wait after the first change of a batch, so that editors and file copies have finished writing.
+	 */
+	private static final long SETTLE_MILLIS = 100;
+	
+	private final String modId;
+	private final Path root;
+	private final WatchService watchService;
+	private final BiConsumer<StaticDataIndex, Set<Identifier>> publisher;
+	
+	// Only touched by the watcher thread once it starts
+	private final List<SupplierIndex<?>> suppliersBefore = new ArrayList<>();
+	private final List<SupplierIndex<?>> suppliersAfter = new ArrayList<>();
+	private final NavigableMap<String, SupplierIndex<?>> packs = new TreeMap<>();
+	private LooseSupplierIndex loose;
+	
+	private StaticDataWatcher(String modId, Path root, StaticDataIndex index, BiConsumer<StaticDataIndex, Set<Identifier>> publisher) throws IOException {
+		this.modId = modId;
+		this.root = root;
+		this.watchService = root.getFileSystem().newWatchService();
+		this.publisher = publisher;
+		
+		for(SupplierIndex<?> supplier : index.getSuppliers()) {
+			if ((supplier instanceof ZipSupplierIndex || supplier instanceof SdPackSupplierIndex) && isInRoot(supplier)) {
+				packs.put(supplier.getLocation().getFileName().toString(), supplier);
+			} else if (supplier instanceof LooseSupplierIndex looseSupplier && isInRoot(looseSupplier)) {
+				loose = looseSupplier;
+			} else if (packs.isEmpty() && loose == null) {
+				suppliersBefore.add(supplier);
+			} else {
+				suppliersAfter.add(supplier);
+			}
+		}
+		// The root may have been created after it was scanned
+		if (loose == null) loose = new LooseSupplierIndex(modId, root, new TreeMap<>());
+		
+		registerAll(root);
+	}
+	
+	/**
+	 * Starts watching a staticdata root on a background thread.
+	 * @param modId the modId the root's data is credited to
+	 * @param root the staticdata root to watch. Its suppliers must be next to each other in index.
+	 * @param index the index as it was when the root was scanned
+	 * @param publisher called with each updated index and the Identifiers that changed in it
+	 */
+	public static void start(String modId, Path root, StaticDataIndex index, BiConsumer<StaticDataIndex, Set<Identifier>> publisher) {
+		try {
+			Thread thread = new Thread(new StaticDataWatcher(modId, root, index, publisher), "StaticData Watcher");
+			thread.setDaemon(true);
+			thread.start();
+			StaticDataMod.LOGGER.info("Watching \""+root+"\" for staticdata changes.");
+		} catch (IOException e) {
+			StaticDataMod.LOGGER.warn("Couldn't watch \""+root+"\" for staticdata changes.", e);
+		}
+	}
+	
+	private boolean isInRoot(SupplierIndex<?> supplier) {
+		if (!supplier.getModId().equals(modId)) return false;
+		
+		Path location = supplier.getLocation();
+		if (location == null) return false; // Sources registered in code never live in a root
+		return (supplier instanceof LooseSupplierIndex) ? root.equals(location) : root.equals(location.getParent());
+	}
+	
+	@Override
+	public void run() {
+		while(true) {
+			WatchKey key;
+			try {
+				key = watchService.take();
+				Thread.sleep(SETTLE_MILLIS);
+			} catch (InterruptedException | ClosedWatchServiceException e) {
+				return;
+			}
+			
+			Set<Path> changedPaths = new HashSet<>();
+			boolean overflow = false;
+			do {
+				Path dir = (Path) key.watchable();
+				for(WatchEvent<?> event : key.pollEvents()) {
+					if (event.kind() == StandardWatchEventKinds.OVERFLOW) {
+						overflow = true;
+						continue;
+					}
+					
+					Path path = dir.resolve((Path) event.context());
+					if (Files.isDirectory(path)) {
+						// Some platforms report a folder as modified whenever its contents change, which says nothing new
+						if (event.kind() == StandardWatchEventKinds.ENTRY_MODIFY) continue;
+						if (event.kind() == StandardWatchEventKinds.ENTRY_CREATE) registerAll(path);
+					}
+					changedPaths.add(path);
+				}
+				key.reset();
+			} while((key = watchService.poll()) != null);
+			
+			try {
+				Set<Identifier> changedIds = (overflow) ? rescan() : update(changedPaths);
+				if (!changedIds.isEmpty()) publisher.accept(createIndex(), Set.copyOf(changedIds));
+			} catch (RuntimeException e) {
+				StaticDataMod.LOGGER.error("Couldn't update staticdata from \""+root+"\".", e);
+			}
+		}
+	}
+	
+	private StaticDataIndex createIndex() {
+		List<SupplierIndex<?>> suppliers = new ArrayList<>(suppliersBefore);
+		suppliers.addAll(packs.values());
+		suppliers.add(loose);
+		suppliers.addAll(suppliersAfter);
+		
+		return new StaticDataIndex(suppliers);
+	}
+	
+	/**
+	 * Updates the root's suppliers for a set of changed files and folders.
+	 * @return the Identifier of everything that was added, removed or modified
+	 */
+	private Set<Identifier> update(Set<Path> changedPaths) {
+		Set<Identifier> changedIds = new HashSet<>();
+		NavigableMap<String, Identifier> looseEntries = null;
+		
+		for(Path path : changedPaths) {
+			if (root.equals(path.getParent()) && StaticDataImpl.isPack(path) && !Files.isDirectory(path)) {
+				updatePack(path, changedIds);
+				continue;
+			}
+			
+			if (looseEntries == null) looseEntries = new TreeMap<>(loose.entries);
+			ContentFingerprints.forget(path);
+			
+			// Whatever was at or under this path before is gone, and whatever is there now is new
+			String key = toKey(root.relativize(path));
+			Identifier removed = looseEntries.remove(key);
+			if (removed != null) changedIds.add(removed);
+			Map<String, Identifier> removedChildren = looseEntries.subMap(key + "/", true, key + "0", false);
+			changedIds.addAll(removedChildren.values());
+			removedChildren.clear();
+			
+			if (!Files.exists(path)) continue;
+			for(Path file : StaticDataImpl.listFiles(path, true)) {
+				Identifier resourceId = StaticDataImpl.tryToIdentifier(root.relativize(file));
+				if (resourceId == null) continue;
+				
+				looseEntries.put(StaticDataImpl.toIndexKey(resourceId), resourceId);
+				changedIds.add(resourceId);
+			}
+		}
+		
+		if (looseEntries != null) loose = new LooseSupplierIndex(modId, root, looseEntries);
+		return changedIds;
+	}
+	
+	/**
+	 * Lists the whole root again, for when the watch service lost track of what changed.
+	 * @return the Identifier of everything that was added, removed or modified
+	 */
+	private Set<Identifier> rescan() {
+		Set<Identifier> changedIds = new HashSet<>();
+		
+		Set<Path> packPaths = new HashSet<>();
+		for(SupplierIndex<?> pack : packs.values()) packPaths.add(pack.getLocation());
+		for(Path subPath : StaticDataImpl.listChildren(root)) {
+			if (Files.isRegularFile(subPath) && StaticDataImpl.isPack(subPath)) packPaths.add(subPath);
+		}
+		for(Path packPath : packPaths) updatePack(packPath, changedIds);
+		
+		LooseSupplierIndex previous = loose;
+		ContentFingerprints.forget(root);
+		loose = LooseSupplierIndex.scan(modId, root);
+		addDifferences(previous, loose, changedIds);
+		
+		return changedIds;
+	}
+	
+	private void updatePack(Path packPath, Set<Identifier> changedIds) {
+		SupplierIndex<?> previous = packs.remove(packPath.getFileName().toString());
+		SupplierIndex<?> current = null;
+		if (previous != null) OffHeapPayloadStore.evict(packPath); // Whatever was read from the old pack is out of date
+		
+		if (Files.isRegularFile(packPath)) {
+			try {
+				current = (packPath.getFileName().toString().endsWith(SdPack.EXTENSION)) ? SdPackSupplierIndex.open(modId, packPath) : ZipSupplierIndex.scan(modId, packPath);
+				packs.put(packPath.getFileName().toString(), current);
+			} catch (IOException | RuntimeException e) {
+				// Usually the pack is still being copied in, and there will be another event once it's done
+				StaticDataMod.LOGGER.warn("Couldn't read staticdata pack \""+packPath+"\"; ignoring it until it changes again.", e);
+			}
+		}
+		
+		addDifferences(previous, current, changedIds);
+	}
+	
+	private static void addDifferences(@Nullable SupplierIndex<?> before, @Nullable SupplierIndex<?> after, Set<Identifier> changedIds) {
+		Map<String, ?> beforeEntries = (before != null) ? before.getEntries() : Map.of();
+		Map<String, ?> afterEntries = (after != null) ? after.getEntries() : Map.of();
+		
+		for(Map.Entry<String, ?> entry : beforeEntries.entrySet()) {
+			if (!entry.getValue().equals(afterEntries.get(entry.getKey()))) addChangedKey(entry.getKey(), changedIds);
+		}
+		for(String key : afterEntries.keySet()) {
+			if (!beforeEntries.containsKey(key)) addChangedKey(key, changedIds);
+		}
+	}
+	
+	private static void addChangedKey(String key, Set<Identifier> changedIds) {
+		Identifier resourceId = StaticDataImpl.tryToIdentifier(key);
+		if (resourceId != null) changedIds.add(resourceId);
+	}
+	
+	private static String toKey(Path relativePath) {
+		StringBuilder result = new StringBuilder();
+		for(int i=0; i<relativePath.getNameCount(); i++) {
+			if (i > 0) result.append('/');
+			result.append(relativePath.getName(i));
+		}
+		
+		return result.toString();
+	}
+	
+	private void registerAll(Path dir) {
+		try (Stream<Path> subPaths = Files.walk(dir)) {
+			subPaths.filter(Files::isDirectory).forEach(subDir -> {
+				try {
+					subDir.register(watchService, StandardWatchEventKinds.ENTRY_CREATE, StandardWatchEventKinds.ENTRY_DELETE, StandardWatchEventKinds.ENTRY_MODIFY);
+				} catch (IOException e) {
+					throw new UncheckedIOException(e);
+				}
+			});
+		} catch (IOException | UncheckedIOException e) {
+			StaticDataMod.LOGGER.warn("Couldn't watch all of \""+dir+"\" for staticdata changes.", e);
+		}
+	}
+}
@@ -0,0 +1,214 @@
+package gay.debuggy.staticdata.impl;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Set;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+
+import gay.debuggy.staticdata.api.DirectoryQuery;
+import gay.debuggy.staticdata.api.StaticDataItem;
+import gay.debuggy.staticdata.api.StaticDataPattern;
+import gay.debuggy.staticdata.api.StaticDataSource;
+import net.minecraft.util.Identifier;
+
+/**
+ * An immutable listing of every file that a single supplier - one staticdata pack, or the loose files of one staticdata
+ * root - makes available. Entries are keyed by "namespace/path" so that directory searches become range lookups.
+ * 
+ * <p>Instances are never modified after construction, so they may be shared freely between threads. Every supplier is
+ * also a StaticDataSource, already indexed and with random access to its entries.
+ * @param <T> the per-entry information this kind of supplier needs to produce a StaticDataItem
+ */
+public abstract class SupplierIndex<T> implements StaticDataSource {
+	private static final Set<Capability> CAPABILITIES = Set.of(Capability.INDEXED, Capability.RANDOM_ACCESS);
+	
+	protected final String modId;
+	protected final Path location;
+	protected final NavigableMap<String, T> entries;
+	private volatile KeyFilter filter = null;
+	
+	protected SupplierIndex(String modId, Path location, NavigableMap<String, T> entries) {
+		this.modId = modId;
+		this.location = location;
+		this.entries = Collections.unmodifiableNavigableMap(entries);
+	}
+	
+	public String getModId() {
+		return modId;
+	}
+	
+	/**
+	 * Gets the file or folder this supplier was scanned from.
+	 * @return the location of the pack or loose staticdata root, or null for a source that doesn't live on a filesystem
+	 */
+	@Override
+	public Path getLocation() {
+		return location;
+	}
+	
+	@Override
+	public Set<Capability> getCapabilities() {
+		return CAPABILITIES;
+	}
+	
+	@Override
+	public void forEachEntry(Consumer<Identifier> consumer) {
+		forEachKey(key -> {
+			Identifier resourceId = StaticDataImpl.tryToIdentifier(key);
+			if (resourceId != null) consumer.accept(resourceId);
+		});
+	}
+	
+	@Override
+	public InputStream open(Identifier resourceId) throws IOException {
+		List<StaticDataItem> found = new ArrayList<>(1);
+		addExactData(resourceId, found);
+		if (found.isEmpty()) throw new NoSuchFileException(resourceId+" in "+location);
+		
+		return found.get(0).getAsStream();
+	}
+	
+	public int size() {
+		return entries.size();
+	}
+	
+	/**
+	 * Gets every entry by its "namespace/path" key, for comparing two listings of the same supplier. An entry's value
+	 * is equal in both listings whenever the entry hasn't changed.
+	 */
+	public Map<String, ?> getEntries() {
+		return entries;
+	}
+	
+	/**
+	 * Passes the "namespace/path" key of every entry to the consumer, in path order.
+	 */
+	public void forEachKey(Consumer<String> consumer) {
+		entries.keySet().forEach(consumer);
+	}
+	
+	/**
+	 * Gets a filter over this supplier's keys, building it the first time it's needed. Suppliers are built once and
+	 * shared by every index that includes them, so this is only ever built once per supplier.
+	 */
+	public KeyFilter getFilter() {
+		KeyFilter result = filter;
+		if (result == null) filter = result = KeyFilter.of(size(), this::forEachKey);
+		return result;
+	}
+	
+	/**
+	 * Checks whether this supplier has an entry, without creating an item for it.
+	 * @param key the entry's "namespace/path" key
+	 * @return true if the entry exists
+	 */
+	public boolean containsKey(String key) {
+		return entries.containsKey(key);
+	}
+	
+	public void addExactData(Identifier resId, List<StaticDataItem> results) {
+		T entry = entries.get(StaticDataImpl.toIndexKey(resId));
+		if (entry != null) results.add(createItem(entry));
+	}
+	
+	public void addDirectoryData(Identifier resId, boolean recursive, List<StaticDataItem> results) {
+		streamDirectoryData(resId, recursive).forEachOrdered(results::add);
+	}
+	
+	/**
+	 * Adds the data in several directories at once. Directories nested inside another share its pass over this
+	 * supplier, and each entry's item is created once and added to the results of every query that contains it.
+	 * @param queries the directories to list
+	 * @param results one list per query, in the same order as queries
+	 */
+	public void addDirectoryData(List<DirectoryQuery> queries, List<List<StaticDataItem>> results) {
+		String[] prefixes = new String[queries.size()];
+		List<Integer> order = new ArrayList<>();
+		for(int i=0; i<queries.size(); i++) {
+			prefixes[i] = StaticDataImpl.toDirectoryPrefix(queries.get(i).resourceId()) + "/";
+			order.add(i);
+		}
+		
+		// Every key inside a directory starts with its prefix, so sorting puts nested directories right after their parent
+		order.sort(Comparator.comparing(i -> prefixes[i]));
+		
+		int groupStart = 0;
+		while(groupStart < order.size()) {
+			String outer = prefixes[order.get(groupStart)];
+			int groupEnd = groupStart + 1;
+			while(groupEnd < order.size() && prefixes[order.get(groupEnd)].startsWith(outer)) groupEnd++;
+			List<Integer> group = order.subList(groupStart, groupEnd);
+			
+			String rangeEnd = outer.substring(0, outer.length() - 1) + "0";
+			for(Map.Entry<String, T> entry : entries.subMap(outer, true, rangeEnd, false).entrySet()) {
+				String key = entry.getKey();
+				StaticDataItem item = null;
+				for(int query : group) {
+					if (!key.startsWith(prefixes[query])) continue;
+					if (!queries.get(query).recursive() && key.indexOf('/', prefixes[query].length()) != -1) continue;
+					
+					if (item == null) item = createItem(entry.getValue());
+					results.get(query).add(item);
+				}
+			}
+			
+			groupStart = groupEnd;
+		}
+	}
+	
+	/**
+	 * Lazily lists the data in a directory. Items are only created as the stream reaches them.
+	 * @param resId the Identifier of the directory
+	 * @param recursive true if subfolders within this folder should also be listed
+	 * @return a sequential stream of the matching items, in path order
+	 */
+	public Stream<StaticDataItem> streamDirectoryData(Identifier resId, boolean recursive) {
+		String prefix = StaticDataImpl.toDirectoryPrefix(resId);
+		
+		// Every key inside the directory starts with "prefix/", and '0' is the character right after '/'
+		Stream<Map.Entry<String, T>> matches = entries.subMap(prefix + "/", true, prefix + "0", false).entrySet().stream();
+		if (!recursive) matches = matches.filter(entry -> entry.getKey().indexOf('/', prefix.length() + 1) == -1);
+		
+		return matches.map(entry -> createItem(entry.getValue()));
+	}
+	
+	/**
+	 * Lazily lists the data selected by a pattern. Only entry names are examined; no data is read for entries that
+	 * don't match.
+	 * @param pattern the pattern to match
+	 * @return a sequential stream of the matching items, in path order
+	 */
+	public Stream<StaticDataItem> streamMatchingData(StaticDataPattern pattern) {
+		Map<String, T> candidates = entries;
+		if (pattern.getLiteralNamespace() != null) {
+			// Patterns can only match keys that start with their literal folders, and the prefix always ends in '/'
+			String prefix = pattern.getLiteralNamespace() + "/" + pattern.getLiteralPrefix();
+			candidates = entries.subMap(prefix, true, prefix.substring(0, prefix.length() - 1) + "0", false);
+		}
+		
+		return candidates.entrySet().stream()
+				.filter(entry -> StaticDataImpl.matchesPattern(entry.getKey(), pattern))
+				.map(entry -> createItem(entry.getValue()));
+	}
+	
+	/**
+	 * Creates a StaticDataItem for one of this supplier's entries.
+	 * @param entry the entry to create an item for
+	 * @return a new item, credited to this supplier's modId
+	 */
+	protected abstract StaticDataItem createItem(T entry);
+	
+	@Override
+	public String toString() {
+		return modId+" > "+location+" ("+size()+" entries)";
+	}
+}
@@ -0,0 +1,115 @@
+package gay.debuggy.staticdata.impl;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Objects;
+
+import org.jetbrains.annotations.Nullable;
+
+import net.minecraft.util.Identifier;
+
+/**
+ * A StaticDataItem which lives inside a staticdata pack. Only the location of the entry is held; the data is read and
+ * inflated from the pack each time it's requested, so items which are never read never cost more than their metadata.
+ * 
+ * <p>Reads are positional, so items may be read from any number of threads at once. Data is
+ * streamed straight out of the pack, so {@link #getAsStream()} and {@link #streamLines()} work for entries of any size.
+ * 
+ * <p>If {@link StaticDataConfig#OFF_HEAP_BUDGET} is set, inflated data is kept in the {@link OffHeapPayloadStore}
+ * instead, and only inflated again if it's been evicted.
+ */
+public class ZipDataItem extends AbstractDataItem {
+	private final ZipPack pack;
+	private final ZipPack.Entry entry;
+	
+	public ZipDataItem(String modId, Identifier resourceId, ZipPack pack, ZipPack.Entry entry) {
+		super(modId, resourceId);
+		this.pack = pack;
+		this.entry = entry;
+	}
+	
+	/**
+	 * Reads this item's data into the {@link OffHeapPayloadStore}, if it's enabled, so that later reads don't need to
+	 * inflate it again.
+	 * @return this item
+	 * @throws IOException if there was an error reading in the data
+	 */
+	public ZipDataItem preload() throws IOException {
+		getStored();
+		return this;
+	}
+	
+	/**
+	 * Gets this item's inflated data from the {@link OffHeapPayloadStore}, reading it in if it was never stored or has
+	 * since been evicted. Stored entries are read straight from the pack instead, since they don't need inflating.
+	 * @return a read-only buffer of the data, or null if the data isn't kept in the store
+	 */
+	private @Nullable ByteBuffer getStored() throws IOException {
+		if (!OffHeapPayloadStore.isEnabled() || entry.method() != ZipPack.METHOD_DEFLATED) return null;
+		return OffHeapPayloadStore.get(new OffHeapPayloadStore.Key(pack.getPath(), entry.localHeaderOffset(), entry.crc()), entry.size(), () -> pack.openEntry(entry));
+	}
+	
+	@Override
+	public InputStream getAsStream() throws IOException {
+		ByteBuffer stored = getStored();
+		return (stored != null) ? new ByteBufferInputStream(stored) : pack.openEntry(entry);
+	}
+	
+	@Override
+	public byte[] getAsBytes() throws IOException {
+		ByteBuffer stored = getStored();
+		if (stored == null) return pack.readEntry(entry);
+		
+		byte[] result = new byte[stored.remaining()];
+		stored.get(result);
+		return result;
+	}
+	
+	@Override
+	public ByteBuffer getAsByteBuffer() throws IOException {
+		ByteBuffer mapped = pack.mapEntry(entry);
+		if (mapped != null) return mapped;
+		
+		ByteBuffer stored = getStored();
+		return (stored != null) ? stored : ByteBuffer.wrap(getSharedBytes()).asReadOnlyBuffer();
+	}
+	
+	@Override
+	protected byte[] getSharedBytes() throws IOException {
+		return PayloadStore.intern(pack.readEntry(entry), entry.crc());
+	}
+	
+	@Override
+	public long getContentFingerprint() throws IOException {
+		return pack.getContentFingerprint(entry);
+	}
+	
+	@Override
+	public String getAsString() throws IOException {
+		ByteBuffer stored = getStored();
+		if (stored != null) return StandardCharsets.UTF_8.decode(stored).toString();
+		
+		return new String(pack.readEntry(entry), StandardCharsets.UTF_8);
+	}
+	
+	@Override
+	public boolean equals(Object obj) {
+		return obj instanceof ZipDataItem other
+				&& other.getModId().equals(getModId())
+				&& other.getResourceId().equals(getResourceId())
+				&& other.pack.getPath().equals(pack.getPath())
+				&& other.entry.localHeaderOffset() == entry.localHeaderOffset();
+	}
+	
+	@Override
+	public int hashCode() {
+		return Objects.hash(getModId(), getResourceId(), pack.getPath(), entry.localHeaderOffset());
+	}
+	
+	@Override
+	public String toString() {
+		return getModId()+":"+getResourceId().getNamespace()+":"+getResourceId().getPath()+" > "+pack.getPath()+" > "+entry.name()+" ("+entry.size()+" bytes)";
+	}
+}
@@ -0,0 +1,637 @@
+package gay.debuggy.staticdata.impl;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.lang.ref.Cleaner;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.ClosedChannelException;
+import java.nio.channels.FileChannel;
+import java.nio.channels.SeekableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.zip.CRC32;
+import java.util.zip.CheckedInputStream;
+import java.util.zip.Inflater;
+import java.util.zip.InflaterInputStream;
+import java.util.zip.ZipException;
+
+import org.jetbrains.annotations.Nullable;
+
+import gay.debuggy.staticdata.api.StaticDataFingerprints;
+import gay.debuggy.staticdata.api.StaticDataItem;
+
+/**
+ * Random-access reader for zip files. The central directory at the end of the file is read once, and entries are then
+ * read by seeking straight to their local headers, so reading one entry never requires inflating any other entry.
+ * 
+ * <p>Packs on the default filesystem share one FileChannel for all of their reads. Reads are positional, so any number
+ * of threads can read different entries at once without waiting on each other or opening the file again. The channel
+ * is opened on the first read, and closed when the pack is garbage collected or {@link #closeAll()} is called. Packs
+ * on any other filesystem, such as inside a mod jar, are read into memory once instead, since opening them again may
+ * mean inflating the whole pack again.
+ */
+public class ZipPack {
+	private static final int LOCAL_HEADER_SIGNATURE = 0x04034b50;
+	private static final int CENTRAL_HEADER_SIGNATURE = 0x02014b50;
+	private static final int END_SIGNATURE = 0x06054b50;
+	private static final int ZIP64_END_SIGNATURE = 0x06064b50;
+	private static final int ZIP64_LOCATOR_SIGNATURE = 0x07064b50;
+	
+	private static final int LOCAL_HEADER_SIZE = 30;
+	private static final int CENTRAL_HEADER_SIZE = 46;
+	private static final int END_SIZE = 22;
+	private static final int ZIP64_LOCATOR_SIZE = 20;
+	private static final int ZIP64_END_SIZE = 56;
+	private static final int MAX_COMMENT_SIZE = 0xFFFF;
+	
+	public static final int METHOD_STORED = 0;
+	public static final int METHOD_DEFLATED = 8;
+	
+	/**
+	 * One file as described by the central directory.
+	 * @param name the entry name, exactly as it appears in the zip file
+	 * @param method the compression method, such as {@link ZipPack#METHOD_DEFLATED}
+	 * @param flags the general purpose bit flags of the entry
+	 * @param crc the CRC-32 of the uncompressed data
+	 * @param compressedSize the size of the data as stored in the zip file
+	 * @param size the size of the data once uncompressed
+	 * @param localHeaderOffset the position of the entry's local header in the zip file
+	 */
+	public record Entry(String name, int method, int flags, long crc, long compressedSize, long size, long localHeaderOffset) {
+		public boolean isDirectory() {
+			return name.endsWith("/");
+		}
+		
+		public boolean isEncrypted() {
+			return (flags & 1) != 0;
+		}
+	}
+	
+	/**
+	 * Decides which entries to keep while the central directory is read, before their names are decoded.
+	 */
+	public interface NameFilter {
+		/**
+		 * @param names a buffer holding the entry's raw name. It MUST NOT be modified, and its position is meaningless.
+		 * @param offset where the name starts in names
+		 * @param length the length of the name in bytes
+		 * @return true to keep the entry
+		 */
+		public boolean accepts(ByteBuffer names, int offset, int length);
+	}
+	
+	private static final Cleaner CLEANER = Cleaner.create();
+	private static final Set<SharedReader> OPEN_READERS = ConcurrentHashMap.newKeySet();
+	
+	private final Path path;
+	private final List<Entry> entries;
+	private final LongAdder bytesInflated = new LongAdder();
+	private final SharedReader reader;
+	/**
+	 * Entries that have been mapped, by local header offset. Each mapping is made once and shared through duplicates,
+	 * since making a new one costs a system call and a slice of address space every time.
+	 */
+	private final Map<Long, ByteBuffer> mappedEntries = new ConcurrentHashMap<>();
+	/**
+	 * Content fingerprints of entries that have been read for one, by local header offset.
+	 */
+	private final Map<Long, Long> contentFingerprints = new ConcurrentHashMap<>();
+	private int entriesExamined;
+	
+	/**
+	 * Opens a zip file and reads its central directory.
+	 * @param path the zip file
+	 * @throws IOException if the file can't be read, or isn't a valid zip file
+	 */
+	public ZipPack(Path path) throws IOException {
+		this(path, (NameFilter) null);
+	}
+	
+	/**
+	 * Opens a zip file and reads only the entries of its central directory that filter accepts. Names are matched as
+	 * raw bytes, so entries that are rejected are skipped without decoding them.
+	 * @param path the zip file
+	 * @param filter decides which entries to keep
+	 * @throws IOException if the file can't be read, or isn't a valid zip file
+	 */
+	public ZipPack(Path path, @Nullable NameFilter filter) throws IOException {
+		this.path = path;
+		this.reader = createReader();
+		this.entries = List.copyOf(readCentralDirectory(filter));
+	}
+	
+	/**
+	 * Creates a reader for a zip file whose central directory has already been read, e.g. from a cache.
+	 * @param path the zip file
+	 * @param entries the entries to make available. These are trusted to be accurate.
+	 */
+	public ZipPack(Path path, List<Entry> entries) {
+		this.path = path;
+		this.entries = List.copyOf(entries);
+		this.entriesExamined = entries.size();
+		this.reader = createReader();
+	}
+	
+	private SharedReader createReader() {
+		SharedReader result = new SharedReader(path);
+		CLEANER.register(this, result::close);
+		return result;
+	}
+	
+	/**
+	 * Closes the shared channel of every pack, and drops every pack held in memory. Packs stay usable, and open or read
+	 * in their pack again on their next read.
+	 */
+	public static void closeAll() {
+		for(SharedReader reader : OPEN_READERS) reader.close();
+	}
+	
+	public Path getPath() {
+		return path;
+	}
+	
+	/**
+	 * Gets every entry in the central directory, in the order they appear there.
+	 * @return an immutable list of entries
+	 */
+	public List<Entry> getEntries() {
+		return entries;
+	}
+	
+	/**
+	 * Gets the number of entries in the central directory, including any that were filtered out when it was read.
+	 */
+	public int getEntriesExamined() {
+		return entriesExamined;
+	}
+	
+	/**
+	 * Gets the total uncompressed size of every entry opened from this pack so far, plus, for a pack nested inside
+	 * another archive, every time the whole pack was read out of that archive.
+	 */
+	public long getBytesInflated() {
+		return bytesInflated.sum() + reader.bytesLoaded.sum();
+	}
+	
+	/**
+	 * Opens a stream of the uncompressed data of an entry in this pack.
+	 * @param entry an entry from {@link #getEntries()}
+	 * @return a stream which must be closed by the caller. Once it reaches the end of the data, it throws a ZipException
+	 *         if the data doesn't match the size and CRC-32 recorded in the central directory.
+	 * @throws IOException if the entry can't be found or uses an unsupported compression method
+	 */
+	public InputStream openEntry(Entry entry) throws IOException {
+		if (entry.isEncrypted()) throw new ZipException("Entry \""+entry.name()+"\" in \""+path+"\" is encrypted.");
+		if (entry.method() != METHOD_STORED && entry.method() != METHOD_DEFLATED) {
+			throw new ZipException("Entry \""+entry.name()+"\" in \""+path+"\" uses unsupported compression method "+entry.method());
+		}
+		
+		bytesInflated.add(entry.size());
+		
+		InputStream in = new PackInputStream(reader, getDataOffset(entry), entry.compressedSize());
+		if (entry.method() == METHOD_DEFLATED) in = new RawInflaterInputStream(in);
+		return new VerifiedInputStream(in, entry);
+	}
+	
+	/**
+	 * Reads the uncompressed data of an entry in this pack.
+	 * @param entry an entry from {@link #getEntries()}
+	 * @return the data for the entry
+	 * @throws IOException if the entry can't be read, or its data doesn't match the size and CRC-32 in the central
+	 *         directory
+	 */
+	public byte[] readEntry(Entry entry) throws IOException {
+		if (entry.size() > Integer.MAX_VALUE - 8) {
+			throw new ZipException("Entry \""+entry.name()+"\" in \""+path+"\" is too large to read into memory; it can only be streamed.");
+		}
+		
+		try (InputStream in = openEntry(entry)) {
+			byte[] data = in.readNBytes((int) entry.size());
+			// Reading on to the end runs the stream's size and CRC-32 checks, and catches data longer than it claims to be
+			if (data.length != entry.size() || in.read() != -1) {
+				throw new ZipException("Entry \""+entry.name()+"\" in \""+path+"\" doesn't have the "+entry.size()+" bytes of data it should");
+			}
+			return data;
+		}
+	}
+	
+	/**
+	 * Gets the {@link StaticDataItem#getContentFingerprint() content fingerprint} of an entry, reading its data the first
+	 * time it's asked for.
+	 * @param entry an entry from {@link #getEntries()}
+	 * @throws IOException if the entry can't be read
+	 */
+	public long getContentFingerprint(Entry entry) throws IOException {
+		Long known = contentFingerprints.get(entry.localHeaderOffset());
+		if (known != null) return known;
+		
+		long fingerprint;
+		try (InputStream in = openEntry(entry)) {
+			fingerprint = StaticDataFingerprints.of(in);
+		}
+		contentFingerprints.put(entry.localHeaderOffset(), fingerprint);
+		return fingerprint;
+	}
+	
+	/**
+	 * Memory-maps the data of an entry in this pack, if it's large enough to be worth it and stored without compression.
+	 * @param entry an entry from {@link #getEntries()}
+	 * @return a read-only buffer over the entry's data, or null if the entry can't be mapped. Each call returns a new
+	 *         view with its own position, over a mapping that's shared by every call for the same entry.
+	 * @throws IOException if the pack can't be read
+	 */
+	public @Nullable ByteBuffer mapEntry(Entry entry) throws IOException {
+		if (entry.method() != METHOD_STORED || entry.isEncrypted() || entry.size() < StaticDataImpl.MIN_MAPPED_SIZE) return null;
+		
+		if (path.getFileSystem() != FileSystems.getDefault()) return null; // Only files on the default filesystem can be mapped
+		
+		ByteBuffer mapped = mappedEntries.get(entry.localHeaderOffset());
+		if (mapped == null) {
+			mapped = StaticDataImpl.map(path, getDataOffset(entry), entry.size());
+			if (mapped == null) return null;
+			
+			// If another thread got here first, use its mapping and let this one be collected
+			ByteBuffer existing = mappedEntries.putIfAbsent(entry.localHeaderOffset(), mapped);
+			if (existing != null) mapped = existing;
+		}
+		return mapped.duplicate();
+	}
+	
+	/**
+	 * Finds where an entry's data starts by reading its local header, whose name and extra field lengths may differ from
+	 * the ones in the central directory.
+	 */
+	private long getDataOffset(Entry entry) throws IOException {
+		ByteBuffer header = read(reader, entry.localHeaderOffset(), LOCAL_HEADER_SIZE);
+		if (header.getInt(0) != LOCAL_HEADER_SIGNATURE) {
+			throw new ZipException("Bad local header for entry \""+entry.name()+"\" in \""+path+"\"");
+		}
+		
+		int nameLength = Short.toUnsignedInt(header.getShort(26));
+		int extraLength = Short.toUnsignedInt(header.getShort(28));
+		return entry.localHeaderOffset() + LOCAL_HEADER_SIZE + nameLength + extraLength;
+	}
+	
+	private List<Entry> readCentralDirectory(@Nullable NameFilter filter) throws IOException {
+		long fileSize = reader.size();
+		
+		// The end record sits at the very end of the file, followed only by an optional comment
+		int tailSize = (int) Math.min(fileSize, END_SIZE + MAX_COMMENT_SIZE);
+		ByteBuffer tail = read(reader, fileSize - tailSize, tailSize);
+		int endPos = -1;
+		for(int i = tailSize - END_SIZE; i >= 0; i--) {
+			if (tail.getInt(i) == END_SIGNATURE && i + END_SIZE + Short.toUnsignedInt(tail.getShort(i + 20)) <= tailSize) {
+				endPos = i;
+				break;
+			}
+		}
+		if (endPos == -1) throw new ZipException("\""+path+"\" is not a zip file.");
+		
+		long entryCount = Short.toUnsignedInt(tail.getShort(endPos + 10));
+		long directorySize = Integer.toUnsignedLong(tail.getInt(endPos + 12));
+		long directoryOffset = Integer.toUnsignedLong(tail.getInt(endPos + 16));
+		
+		// Large archives move the real values into a ZIP64 end record, found through a locator just before this one
+		long endOffset = fileSize - tailSize + endPos;
+		if (endOffset >= ZIP64_LOCATOR_SIZE) {
+			ByteBuffer locator = read(reader, endOffset - ZIP64_LOCATOR_SIZE, ZIP64_LOCATOR_SIZE);
+			if (locator.getInt(0) == ZIP64_LOCATOR_SIGNATURE) {
+				long zip64EndOffset = locator.getLong(8);
+				if (zip64EndOffset < 0 || zip64EndOffset > endOffset - ZIP64_LOCATOR_SIZE - ZIP64_END_SIZE) {
+					throw new ZipException("Bad ZIP64 locator in \""+path+"\"");
+				}
+				
+				ByteBuffer zip64End = read(reader, zip64EndOffset, ZIP64_END_SIZE);
+				if (zip64End.getInt(0) != ZIP64_END_SIGNATURE) throw new ZipException("Bad ZIP64 end record in \""+path+"\"");
+				
+				entryCount = zip64End.getLong(32);
+				directorySize = zip64End.getLong(40);
+				directoryOffset = zip64End.getLong(48);
+			}
+		}
+		
+		// ZIP64 values are unsigned too, but anything past Long.MAX_VALUE is past the end of the file anyway
+		if (entryCount < 0 || directorySize < 0 || directorySize > Integer.MAX_VALUE || directoryOffset < 0 || directoryOffset > endOffset - directorySize) {
+			throw new ZipException("Bad central directory in \""+path+"\"");
+		}
+		
+		ByteBuffer directory = read(reader, directoryOffset, (int) directorySize);
+		List<Entry> result = new ArrayList<>((int) Math.min(entryCount, 0xFFFF));
+		int pos = 0;
+		while (pos + CENTRAL_HEADER_SIZE <= directory.limit() && directory.getInt(pos) == CENTRAL_HEADER_SIGNATURE) {
+			entriesExamined++;
+			int flags = Short.toUnsignedInt(directory.getShort(pos + 8));
+			int method = Short.toUnsignedInt(directory.getShort(pos + 10));
+			long crc = Integer.toUnsignedLong(directory.getInt(pos + 16));
+			long compressedSize = Integer.toUnsignedLong(directory.getInt(pos + 20));
+			long size = Integer.toUnsignedLong(directory.getInt(pos + 24));
+			int nameLength = Short.toUnsignedInt(directory.getShort(pos + 28));
+			int extraLength = Short.toUnsignedInt(directory.getShort(pos + 30));
+			int commentLength = Short.toUnsignedInt(directory.getShort(pos + 32));
+			long localHeaderOffset = Integer.toUnsignedLong(directory.getInt(pos + 42));
+			
+			int namePos = pos + CENTRAL_HEADER_SIZE;
+			int extraPos = namePos + nameLength;
+			int nextPos = extraPos + extraLength + commentLength;
+			if (nextPos > directory.limit()) throw new ZipException("Truncated central directory in \""+path+"\"");
+			
+			if (filter != null && !filter.accepts(directory, namePos, nameLength)) {
+				pos = nextPos;
+				continue;
+			}
+			
+			byte[] nameBytes = new byte[nameLength];
+			directory.get(namePos, nameBytes);
+			String name = new String(nameBytes, StandardCharsets.UTF_8);
+			
+			// Any value saturated at 0xFFFFFFFF has its real value in the ZIP64 extra field, in this order
+			if (size == 0xFFFFFFFFL || compressedSize == 0xFFFFFFFFL || localHeaderOffset == 0xFFFFFFFFL) {
+				int extraEnd = extraPos + extraLength;
+				while (extraPos + 4 <= extraEnd) {
+					int tag = Short.toUnsignedInt(directory.getShort(extraPos));
+					int length = Short.toUnsignedInt(directory.getShort(extraPos + 2));
+					int fieldPos = extraPos + 4;
+					int fieldEnd = Math.min(fieldPos + length, extraEnd);
+					if (tag == 0x0001) {
+						if (size == 0xFFFFFFFFL && fieldPos + 8 <= fieldEnd) {
+							size = directory.getLong(fieldPos);
+							fieldPos += 8;
+						}
+						if (compressedSize == 0xFFFFFFFFL && fieldPos + 8 <= fieldEnd) {
+							compressedSize = directory.getLong(fieldPos);
+							fieldPos += 8;
+						}
+						if (localHeaderOffset == 0xFFFFFFFFL && fieldPos + 8 <= fieldEnd) {
+							localHeaderOffset = directory.getLong(fieldPos);
+						}
+						break;
+					}
+					extraPos = fieldPos + length;
+				}
+			}
+			
+			if (size < 0 || compressedSize < 0 || localHeaderOffset < 0 || localHeaderOffset > directoryOffset) {
+				throw new ZipException("Bad central directory entry \""+name+"\" in \""+path+"\"");
+			}
+			
+			result.add(new Entry(name, method, flags, crc, compressedSize, size, localHeaderOffset));
+			pos = nextPos;
+		}
+		
+		return result;
+	}
+	
+	/**
+	 * Reads exactly length bytes, starting at position, into a new little-endian buffer.
+	 */
+	private static ByteBuffer read(SharedReader reader, long position, int length) throws IOException {
+		ByteBuffer buf = ByteBuffer.allocate(length).order(ByteOrder.LITTLE_ENDIAN);
+		reader.readFully(buf, position);
+		return buf.flip();
+	}
+	
+	/**
+	 * Fills the remaining space in buf with data from channel, starting at position.
+	 */
+	static void readFully(SeekableByteChannel channel, ByteBuffer buf, long position) throws IOException {
+		while (buf.hasRemaining()) {
+			int read;
+			if (channel instanceof FileChannel fileChannel) {
+				read = fileChannel.read(buf, position);
+			} else {
+				channel.position(position);
+				read = channel.read(buf);
+			}
+			
+			if (read < 0) throw new EOFException();
+			position += read;
+		}
+	}
+	
+	/**
+	 * Serves every read from one pack. Packs on the default filesystem are read through one shared FileChannel, and packs
+	 * anywhere else are read into memory the first time they're read.
+	 */
+	private static class SharedReader {
+		private final Path path;
+		private final boolean inMemory;
+		private volatile @Nullable FileChannel channel = null;
+		private volatile @Nullable ByteBuffer contents = null;
+		private final LongAdder bytesLoaded = new LongAdder();
+		
+		public SharedReader(Path path) {
+			this.path = path;
+			// Other filesystems can't read at a position without moving a shared position, and zipfs inflates a nested
+			// archive in full every time it's opened
+			this.inMemory = path.getFileSystem() != FileSystems.getDefault();
+		}
+		
+		private FileChannel getChannel() throws IOException {
+			FileChannel result = channel;
+			if (result != null && result.isOpen()) return result;
+			
+			synchronized(this) {
+				result = channel;
+				if (result == null || !result.isOpen()) {
+					channel = result = FileChannel.open(path, StandardOpenOption.READ);
+					OPEN_READERS.add(this);
+				}
+				return result;
+			}
+		}
+		
+		private ByteBuffer getContents() throws IOException {
+			ByteBuffer result = contents;
+			if (result != null) return result;
+			
+			synchronized(this) {
+				result = contents;
+				if (result == null) {
+					try (SeekableByteChannel in = Files.newByteChannel(path, StandardOpenOption.READ)) {
+						if (in.size() > Integer.MAX_VALUE - 8) throw new ZipException("\""+path+"\" is too large to read into memory.");
+						ByteBuffer buf = ByteBuffer.allocate((int) in.size());
+						ZipPack.readFully(in, buf, 0);
+						contents = result = buf.flip().asReadOnlyBuffer();
+						bytesLoaded.add(result.capacity());
+					}
+					OPEN_READERS.add(this);
+				}
+				return result;
+			}
+		}
+		
+		public long size() throws IOException {
+			return (inMemory) ? getContents().capacity() : getChannel().size();
+		}
+		
+		/**
+		 * Fills the remaining space in buf with data from the pack, starting at position.
+		 */
+		public void readFully(ByteBuffer buf, long position) throws IOException {
+			if (inMemory) {
+				ByteBuffer source = getContents();
+				if (position < 0 || position + buf.remaining() > source.capacity()) throw new EOFException();
+				buf.put(source.slice((int) position, buf.remaining()));
+				return;
+			}
+			
+			int start = buf.position();
+			try {
+				ZipPack.readFully(getChannel(), buf, position);
+			} catch (ClosedChannelException e) {
+				// An interrupted read, or closeAll, closes the channel for everyone. Unless that was us, reopen it and carry on.
+				if (Thread.currentThread().isInterrupted()) throw e;
+				ZipPack.readFully(getChannel(), buf, position + (buf.position() - start));
+			}
+		}
+		
+		public synchronized void close() {
+			OPEN_READERS.remove(this);
+			contents = null;
+			if (channel == null) return;
+			
+			try {
+				channel.close();
+			} catch (IOException e) {
+				// Nothing was written, so there's nothing to lose
+			}
+			channel = null;
+		}
+	}
+	
+	/**
+	 * An InputStream over a fixed region of a pack.
+	 */
+	private static class PackInputStream extends InputStream {
+		private final SharedReader reader;
+		private long position;
+		private long remaining;
+		
+		public PackInputStream(SharedReader reader, long position, long length) {
+			this.reader = reader;
+			this.position = position;
+			this.remaining = length;
+		}
+		
+		@Override
+		public int read() throws IOException {
+			byte[] b = new byte[1];
+			return (read(b, 0, 1) == -1) ? -1 : Byte.toUnsignedInt(b[0]);
+		}
+		
+		@Override
+		public int read(byte[] b, int off, int len) throws IOException {
+			if (len == 0) return 0;
+			if (remaining <= 0) return -1;
+			
+			ByteBuffer buf = ByteBuffer.wrap(b, off, (int) Math.min(len, remaining));
+			reader.readFully(buf, position);
+			int read = buf.position() - off;
+			position += read;
+			remaining -= read;
+			return read;
+		}
+		
+		@Override
+		public long skip(long n) {
+			long skipped = Math.max(0, Math.min(n, remaining));
+			position += skipped;
+			remaining -= skipped;
+			return skipped;
+		}
+		
+		@Override
+		public int available() {
+			return (int) Math.min(remaining, Integer.MAX_VALUE);
+		}
+	}
+	
+	/**
+	 * Checks an entry's data against the size and CRC-32 in the central directory once the end of the data is reached,
+	 * as ZipInputStream does, so a corrupt or truncated entry fails instead of returning the wrong data.
+	 */
+	private class VerifiedInputStream extends CheckedInputStream {
+		private final Entry entry;
+		private long read = 0;
+		
+		public VerifiedInputStream(InputStream in, Entry entry) {
+			super(in, new CRC32());
+			this.entry = entry;
+		}
+		
+		@Override
+		public int read() throws IOException {
+			int b = super.read();
+			if (b == -1) {
+				verify();
+			} else {
+				read++;
+			}
+			return b;
+		}
+		
+		@Override
+		public int read(byte[] b, int off, int len) throws IOException {
+			int count = super.read(b, off, len);
+			if (count == -1) {
+				verify();
+			} else {
+				read += count;
+			}
+			return count;
+		}
+		
+		private void verify() throws ZipException {
+			if (read != entry.size()) {
+				throw new ZipException("Entry \""+entry.name()+"\" in \""+path+"\" has "+read+" bytes of data, but should have "+entry.size());
+			}
+			if (getChecksum().getValue() != entry.crc()) {
+				throw new ZipException("Entry \""+entry.name()+"\" in \""+path+"\" failed its CRC check");
+			}
+		}
+	}
+	
+	/**
+	 * Inflates raw deflate data, which is how zip files store it. Raw inflaters may need one extra byte past the end of
+	 * the data to finish, so one is supplied if the underlying stream runs out.
+	 */
+	private static class RawInflaterInputStream extends InflaterInputStream {
+		private boolean suppliedPadding = false;
+		
+		public RawInflaterInputStream(InputStream in) {
+			super(in, new Inflater(true), 8192);
+		}
+		
+		@Override
+		protected void fill() throws IOException {
+			len = in.read(buf, 0, buf.length);
+			if (len == -1) {
+				if (suppliedPadding) throw new EOFException("Unexpected end of deflated zip entry");
+				suppliedPadding = true;
+				buf[0] = 0;
+				len = 1;
+			}
+			inf.setInput(buf, 0, len);
+		}
+		
+		@Override
+		public void close() throws IOException {
+			try {
+				super.close();
+			} finally {
+				inf.end();
+			}
+		}
+	}
+}
@@ -0,0 +1,70 @@
+package gay.debuggy.staticdata.impl;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+
+import gay.debuggy.staticdata.api.StaticDataItem;
+import net.minecraft.util.Identifier;
+
+/**
+ * Indexes the staticdata inside a staticdata pack, e.g. {@code example.zip > /staticdata/mymod/blocks/oak.json}.
+ */
+public class ZipSupplierIndex extends SupplierIndex<ZipSupplierIndex.Entry> {
+	private final ZipPack pack;
+	
+	/**
+	 * @param resourceId the Identifier this entry will be served as
+	 * @param zipEntry the central directory entry holding the data
+	 */
+	public record Entry(Identifier resourceId, ZipPack.Entry zipEntry) {}
+	
+	public ZipSupplierIndex(String modId, ZipPack pack, NavigableMap<String, Entry> entries) {
+		super(modId, pack.getPath(), entries);
+		this.pack = pack;
+	}
+	
+	public ZipPack getPack() {
+		return pack;
+	}
+	
+	@Override
+	protected StaticDataItem createItem(Entry entry) {
+		return new ZipDataItem(modId, entry.resourceId(), pack, entry.zipEntry());
+	}
+	
+	/**
+	 * Lists the names of every staticdata file inside a staticdata pack. Only the pack's central directory is read, and
+	 * only the names of entries inside its staticdata folder are decoded.
+	 * @param modId the modId to credit the data to
+	 * @param zipPath the staticdata pack
+	 * @return an index of the files in the pack's staticdata folder
+	 * @throws IOException if the pack could not be read
+	 */
+	public static ZipSupplierIndex scan(String modId, Path zipPath) throws IOException {
+		return scan(modId, new ZipPack(zipPath, EntryNameMatcher.staticData()));
+	}
+	
+	/**
+	 * Lists the names of every staticdata file inside a staticdata pack whose central directory has already been read.
+	 * @param modId the modId to credit the data to
+	 * @param pack the staticdata pack
+	 * @return an index of the files in the pack's staticdata folder
+	 */
+	public static ZipSupplierIndex scan(String modId, ZipPack pack) {
+		NavigableMap<String, Entry> entries = new TreeMap<>();
+		
+		for(ZipPack.Entry zipEntry : pack.getEntries()) {
+			String partialPath = StaticDataImpl.toPartialPath(zipEntry.name());
+			if (partialPath == null) continue;
+			
+			Identifier resourceId = StaticDataImpl.tryToIdentifier(partialPath);
+			if (resourceId != null) {
+				entries.put(StaticDataImpl.toIndexKey(resourceId), new Entry(resourceId, zipEntry));
+			}
+		}
+		
+		return new ZipSupplierIndex(modId, pack, entries);
+	}
+}
@@ -0,0 +1,115 @@
+package gay.debuggy.staticdata.impl;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.junit.jupiter.api.Assumptions.*;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import gay.debuggy.staticdata.api.StaticDataItem;
+import net.minecraft.util.Identifier;
+
+/**
+ * Queries against a published index take no locks, so more threads should answer more queries. The bound here is loose,
+ * since it only needs to tell an unlocked index from one that serializes every query; QueryBenchmark measures it
+ * properly.
+ */
+class ConcurrentQueryTest {
+	private static final long MEASURE_NANOS = 200_000_000L;
+	
+	@TempDir
+	Path dir;
+	
+	@Test
+	void throughputScalesWithThreads() throws Exception {
+		int threads = Math.min(4, Runtime.getRuntime().availableProcessors());
+		assumeTrue(threads >= 2, "needs at least two processors");
+		
+		StaticDataIndex index = scanMods(50);
+		Identifier directory = Identifier.of("shared", "blocks");
+		
+		countQueries(index, directory, threads); // Warm up
+		// Take the best of a few runs of each, so one badly scheduled run doesn't decide the test
+		long single = 0;
+		long parallel = 0;
+		for(int i=0; i<3; i++) {
+			single = Math.max(single, countQueries(index, directory, 1));
+			parallel = Math.max(parallel, countQueries(index, directory, threads));
+		}
+		assertTrue(parallel > single * 1.3, threads+" threads answered "+parallel+" queries to one thread's "+single);
+	}
+	
+	@Test
+	void concurrentQueriesSeeTheSameResults() throws Exception {
+		StaticDataIndex index = scanMods(50);
+		Identifier directory = Identifier.of("shared", "blocks");
+		List<Identifier> expected = index.getDataInDirectory(directory, true).stream().map(StaticDataItem::getResourceId).toList();
+		
+		ExecutorService executor = Executors.newFixedThreadPool(8);
+		try {
+			List<Future<Boolean>> results = new ArrayList<>();
+			for(int i=0; i<8; i++) {
+				results.add(executor.submit(() -> {
+					for(int j=0; j<1000; j++) {
+						if (!index.getDataInDirectory(directory, true).stream().map(StaticDataItem::getResourceId).toList().equals(expected)) return false;
+					}
+					return true;
+				}));
+			}
+			for(Future<Boolean> result : results) assertTrue(result.get());
+		} finally {
+			executor.shutdown();
+		}
+	}
+	
+	/**
+	 * Counts how many directory queries a number of threads answer together in a fixed time.
+	 */
+	private static long countQueries(StaticDataIndex index, Identifier directory, int threads) throws Exception {
+		ExecutorService executor = Executors.newFixedThreadPool(threads);
+		try {
+			CountDownLatch start = new CountDownLatch(1);
+			List<Future<Long>> counts = new ArrayList<>();
+			for(int i=0; i<threads; i++) {
+				counts.add(executor.submit(() -> {
+					start.await();
+					long deadline = System.nanoTime() + MEASURE_NANOS;
+					long count = 0;
+					while(System.nanoTime() < deadline) {
+						if (index.getDataInDirectory(directory, true).isEmpty()) throw new AssertionError("no results");
+						count++;
+					}
+					return count;
+				}));
+			}
+			start.countDown();
+			
+			long total = 0;
+			for(Future<Long> count : counts) total += count.get();
+			return total;
+		} finally {
+			executor.shutdown();
+		}
+	}
+	
+	private StaticDataIndex scanMods(int mods) throws IOException {
+		StaticDataEngine engine = new StaticDataEngine();
+		for(int i=0; i<mods; i++) {
+			Path root = dir.resolve("mod"+i+"/staticdata");
+			Path blocks = Files.createDirectories(root.resolve("shared/blocks/mod"+i));
+			for(int j=0; j<10; j++) Files.writeString(blocks.resolve(j+".json"), "{}");
+			engine.addRoot("mod"+i, root);
+		}
+		return engine.scan();
+	}
+}
@@ -0,0 +1,53 @@
+package gay.debuggy.staticdata.impl;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import gay.debuggy.staticdata.api.StaticDataFingerprints;
+import gay.debuggy.staticdata.api.StaticDataItem;
+import net.minecraft.util.Identifier;
+
+class ContentFingerprintsTest {
+	private static final Identifier OAK = Identifier.of("mymod", "blocks/oak.json");
+	private static final String CONTENTS = "{\"hardness\":2}";
+	
+	@TempDir
+	Path dir;
+	
+	@Test
+	void identicalDataHasTheSameFingerprintFromEverySupplier() throws IOException {
+		Path root = Files.createDirectories(dir.resolve("staticdata"));
+		Files.createDirectories(root.resolve("mymod/blocks"));
+		Files.writeString(root.resolve("mymod/blocks/oak.json"), CONTENTS);
+		ZipPackTest.writeZip(root.resolve("pack.zip"), "staticdata/mymod/blocks/oak.json", CONTENTS);
+		
+		Path sdpackSource = Files.createDirectories(dir.resolve("source/mymod/blocks"));
+		Files.writeString(sdpackSource.resolve("oak.json"), CONTENTS);
+		SdPackWriter.write(dir.resolve("source"), root.resolve("pack"+SdPack.EXTENSION));
+		
+		List<StaticDataItem> items = new StaticDataEngine().addRoot("mymod", root).scan().getExactData(OAK);
+		assertEquals(3, items.size());
+		
+		long expected = StaticDataFingerprints.of(CONTENTS.getBytes(StandardCharsets.UTF_8));
+		for(StaticDataItem item : items) {
+			assertEquals(expected, item.getContentFingerprint(), item.toString());
+			assertEquals(expected, CachedDataItem.copyOf(item).getContentFingerprint(), item.toString());
+		}
+	}
+	
+	@Test
+	void differentDataOfTheSameLengthHasDifferentFingerprints() {
+		long first = StaticDataFingerprints.of("{\"hardness\":2}".getBytes(StandardCharsets.UTF_8));
+		long second = StaticDataFingerprints.of("{\"hardness\":3}".getBytes(StandardCharsets.UTF_8));
+		assertNotEquals(first, second);
+		assertEquals(first, StaticDataFingerprints.of("{\"hardness\":2}".getBytes(StandardCharsets.UTF_8)));
+	}
+}
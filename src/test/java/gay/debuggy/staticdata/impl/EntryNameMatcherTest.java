@@ -0,0 +1,54 @@
+package gay.debuggy.staticdata.impl;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+class EntryNameMatcherTest {
+	private static final String[] PARTS = { "staticdata", "/", "\\", "mymod", "a.json", "static", "staticdatax", "\u00e9", "b/", ".." };
+	
+	@Test
+	void acceptsStaticDataFiles() {
+		assertTrue(accepts("staticdata/mymod/a.json"));
+		assertTrue(accepts("/staticdata/mymod/a.json"));
+		assertTrue(accepts("staticdata\\mymod\\a.json"));
+		assertFalse(accepts("staticdata/"));
+		assertFalse(accepts("staticdata/mymod/"));
+		assertFalse(accepts("staticdatax/mymod/a.json"));
+		assertFalse(accepts("assets/staticdata/a.json"));
+		assertFalse(accepts(""));
+	}
+	
+	/**
+	 * The matcher must accept every file the scan would index from its decoded name, and nothing that couldn't be.
+	 */
+	@Test
+	void agreesWithDecodedNames() {
+		Random random = new Random(0);
+		for(int i=0; i<200_000; i++) {
+			StringBuilder name = new StringBuilder();
+			int parts = random.nextInt(6);
+			for(int j=0; j<parts; j++) name.append(PARTS[random.nextInt(PARTS.length)]);
+			
+			String entryName = name.toString();
+			String partialPath = (entryName.endsWith("/")) ? null : StaticDataImpl.toPartialPath(entryName);
+			boolean indexable = partialPath != null && StaticDataImpl.tryToIdentifier(partialPath) != null;
+			boolean accepted = accepts(entryName);
+			if (indexable) assertTrue(accepted, "\""+entryName+"\" should be accepted");
+			if (accepted) assertNotNull(partialPath, "\""+entryName+"\" shouldn't be accepted");
+		}
+	}
+	
+	private static boolean accepts(String entryName) {
+		// Surround the name with other bytes, the way it sits among the rest of a central directory
+		byte[] name = entryName.getBytes(StandardCharsets.UTF_8);
+		ByteBuffer names = ByteBuffer.allocate(name.length + 6);
+		names.position(3);
+		names.put(name);
+		return EntryNameMatcher.staticData().accepts(names, 3, name.length);
+	}
+}
@@ -0,0 +1,42 @@
+package gay.debuggy.staticdata.impl;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+class KeyFilterTest {
+	
+	@Test
+	void neverRulesOutAKeyItHolds() {
+		List<String> keys = new ArrayList<>();
+		for(int i=0; i<50_000; i++) keys.add("mymod/blocks/"+i+".json");
+		
+		KeyFilter filter = KeyFilter.of(keys.size(), keys::forEach);
+		for(String key : keys) {
+			assertTrue(filter.mightContain(KeyFilter.hash(key)), "\""+key+"\" was ruled out");
+		}
+	}
+	
+	@Test
+	void rulesOutMostMissingKeys() {
+		List<String> keys = new ArrayList<>();
+		for(int i=0; i<10_000; i++) keys.add("mymod/blocks/"+i+".json");
+		KeyFilter filter = KeyFilter.of(keys.size(), keys::forEach);
+		
+		int falsePositives = 0;
+		for(int i=0; i<10_000; i++) {
+			if (filter.mightContain(KeyFilter.hash("mymod/items/"+i+".json"))) falsePositives++;
+		}
+		// About 1% is expected
+		assertTrue(falsePositives < 300, falsePositives+" false positives");
+	}
+	
+	@Test
+	void emptyFilterRulesOutEverything() {
+		KeyFilter filter = KeyFilter.of(0, consumer -> {});
+		assertFalse(filter.mightContain(KeyFilter.hash("mymod/a.json")));
+	}
+}
@@ -0,0 +1,82 @@
+package gay.debuggy.staticdata.impl;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import net.minecraft.util.Identifier;
+
+class LazyIndexTest {
+	private static final Identifier OAK = Identifier.of("mymod", "blocks/oak.json");
+	
+	@TempDir
+	Path dir;
+	
+	@Test
+	void concurrentFirstQueriesShareOneScan() throws Exception {
+		StaticDataEngine engine = engine();
+		AtomicInteger scans = new AtomicInteger();
+		LazyIndex index = new LazyIndex(() -> {
+			scans.incrementAndGet();
+			return engine.scan();
+		});
+		
+		int threads = 16;
+		ExecutorService executor = Executors.newFixedThreadPool(threads);
+		try {
+			CountDownLatch start = new CountDownLatch(1);
+			List<Future<StaticDataIndex>> queries = new ArrayList<>();
+			for(int i=0; i<threads; i++) {
+				queries.add(executor.submit(() -> {
+					start.await();
+					return index.get();
+				}));
+			}
+			start.countDown();
+			
+			StaticDataIndex first = queries.get(0).get();
+			for(Future<StaticDataIndex> query : queries) {
+				assertSame(first, query.get());
+			}
+			assertEquals(1, scans.get());
+			assertEquals(1, first.getExactData(OAK).size());
+		} finally {
+			executor.shutdown();
+		}
+	}
+	
+	@Test
+	void failedScanIsRetried() throws IOException {
+		StaticDataEngine engine = engine();
+		AtomicInteger scans = new AtomicInteger();
+		LazyIndex index = new LazyIndex(() -> {
+			if (scans.incrementAndGet() == 1) throw new IllegalStateException("first scan fails");
+			return engine.scan();
+		});
+		
+		assertThrows(IllegalStateException.class, index::get);
+		StaticDataIndex scanned = index.get();
+		assertSame(scanned, index.get());
+		assertEquals(2, scans.get());
+	}
+	
+	private StaticDataEngine engine() throws IOException {
+		Path root = Files.createDirectories(dir.resolve("staticdata/mymod/blocks"));
+		Files.writeString(root.resolve("oak.json"), "{}");
+		return new StaticDataEngine()
+				.addRoot("mymod", dir.resolve("staticdata"))
+				.withCacheFile(dir.resolve("staticdata-index.cache"));
+	}
+}
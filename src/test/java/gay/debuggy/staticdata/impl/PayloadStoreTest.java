@@ -0,0 +1,33 @@
+package gay.debuggy.staticdata.impl;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.nio.charset.StandardCharsets;
+
+import org.junit.jupiter.api.Test;
+
+class PayloadStoreTest {
+	@Test
+	void sharesIdenticalPayloads() {
+		byte[] first = "{\"shared\":true}".getBytes(StandardCharsets.UTF_8);
+		byte[] second = first.clone();
+		
+		assertSame(first, PayloadStore.intern(first));
+		assertSame(first, PayloadStore.intern(second));
+	}
+	
+	/**
+	 * Payloads are keyed by size and CRC-32, so two different payloads can land on the same key. The store has to
+	 * compare the bytes before sharing, or one supplier would be handed another's data.
+	 */
+	@Test
+	void doesNotShareDifferentPayloadsWithTheSameKey() {
+		long crc = 0x12345678L;
+		byte[] first = "{\"value\":1}".getBytes(StandardCharsets.UTF_8);
+		byte[] second = "{\"value\":2}".getBytes(StandardCharsets.UTF_8);
+		
+		assertSame(first, PayloadStore.intern(first, crc));
+		assertSame(second, PayloadStore.intern(second, crc));
+		assertSame(first, PayloadStore.intern(first.clone(), crc));
+	}
+}
@@ -0,0 +1,83 @@
+package gay.debuggy.staticdata.impl;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.zip.CRC32;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import gay.debuggy.staticdata.api.StaticDataItem;
+import net.minecraft.util.Identifier;
+
+class SdPackTest {
+	@TempDir
+	Path dir;
+	
+	@Test
+	void roundTrips() throws IOException {
+		Path source = dir.resolve("staticdata");
+		write(source.resolve("mymod/blocks/oak.json"), "{\"hardness\":2}");
+		write(source.resolve("mymod/blocks/stone.json"), "{\"hardness\":1.5}");
+		write(source.resolve("mymod/empty.txt"), "");
+		write(source.resolve("other/a.json"), "[]");
+		write(source.resolve("mymod/Not An Identifier.json"), "{}");
+		
+		Path output = dir.resolve("out"+SdPack.EXTENSION);
+		assertEquals(4, SdPackWriter.write(source, output));
+		
+		SdPack pack = new SdPack(output);
+		assertEquals(4, pack.size());
+		List<String> keys = new ArrayList<>();
+		for(int i=0; i<pack.size(); i++) keys.add(pack.getKey(i));
+		assertEquals(List.of("mymod/blocks/oak.json", "mymod/blocks/stone.json", "mymod/empty.txt", "other/a.json"), keys);
+		
+		for(int i=0; i<pack.size(); i++) {
+			byte[] expected = Files.readAllBytes(source.resolve(pack.getKey(i)));
+			ByteBuffer data = pack.getData(i);
+			byte[] actual = new byte[data.remaining()];
+			data.get(actual);
+			assertArrayEquals(expected, actual, pack.getKey(i));
+			assertEquals(expected.length, pack.getSize(i));
+			
+			CRC32 crc = new CRC32();
+			crc.update(expected);
+			assertEquals(crc.getValue(), pack.getCrc(i));
+		}
+		
+		assertEquals(1, pack.find("mymod/blocks/stone.json"));
+		assertEquals(-1, pack.find("mymod/blocks/birch.json"));
+		assertEquals(0, pack.lowerBound("mymod/blocks/"));
+		assertEquals(2, pack.lowerBound("mymod/blocks0"));
+	}
+	
+	@Test
+	void servesQueriesThroughTheIndex() throws IOException {
+		Path source = dir.resolve("source");
+		write(source.resolve("mymod/blocks/oak.json"), "{\"hardness\":2}");
+		write(source.resolve("mymod/blocks/stone.json"), "{\"hardness\":1.5}");
+		
+		Path root = dir.resolve("root");
+		Files.createDirectories(root);
+		SdPackWriter.write(source, root.resolve("blocks"+SdPack.EXTENSION));
+		
+		StaticDataIndex index = new StaticDataEngine().addRoot("mymod", root).scan();
+		List<StaticDataItem> items = index.getDataInDirectory(Identifier.of("mymod", "blocks"), false);
+		assertEquals(List.of(Identifier.of("mymod", "blocks/oak.json"), Identifier.of("mymod", "blocks/stone.json")), items.stream().map(StaticDataItem::getResourceId).toList());
+		assertEquals("{\"hardness\":1.5}", items.get(1).getAsString());
+		assertTrue(index.containsData(Identifier.of("mymod", "blocks/oak.json")));
+		assertFalse(index.containsData(Identifier.of("mymod", "blocks/birch.json")));
+	}
+	
+	private static void write(Path file, String contents) throws IOException {
+		Files.createDirectories(file.getParent());
+		Files.writeString(file, contents, StandardCharsets.UTF_8);
+	}
+}
@@ -0,0 +1,105 @@
+package gay.debuggy.staticdata.impl;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import net.minecraft.util.Identifier;
+
+class StaticDataCacheTest {
+	private static final Identifier OAK = Identifier.of("mymod", "blocks/oak.json");
+	
+	@TempDir
+	Path dir;
+	
+	@Test
+	void reusesListingsOfUnchangedPacks() throws IOException {
+		Path root = Files.createDirectories(dir.resolve("staticdata"));
+		Path pack = root.resolve("pack.zip");
+		ZipPackTest.writeZip(pack, "staticdata/mymod/blocks/oak.json", "{}");
+		Path cacheFile = dir.resolve("index.cache");
+		
+		new StaticDataEngine().addRoot("mymod", root).withCacheFile(cacheFile).scan();
+		assertTrue(Files.isRegularFile(cacheFile));
+		
+		ZipSupplierIndex cached = StaticDataCache.load(cacheFile).getZip("mymod", pack);
+		assertNotNull(cached);
+		assertEquals(1, cached.size());
+		assertNull(StaticDataCache.load(cacheFile).getZip("othermod", pack));
+	}
+	
+	@Test
+	void forgetsPacksThatChanged() throws IOException {
+		Path root = Files.createDirectories(dir.resolve("staticdata"));
+		Path pack = root.resolve("pack.zip");
+		ZipPackTest.writeZip(pack, "staticdata/mymod/blocks/oak.json", "{}");
+		Path cacheFile = dir.resolve("index.cache");
+		new StaticDataEngine().addRoot("mymod", root).withCacheFile(cacheFile).scan();
+		
+		FileTime modified = Files.getLastModifiedTime(pack);
+		ZipPackTest.writeZip(pack, "staticdata/mymod/blocks/oak.json", "{\"changed\":true}", "staticdata/mymod/blocks/stone.json", "{}");
+		Files.setLastModifiedTime(pack, FileTime.fromMillis(modified.toMillis() + 2000));
+		assertNull(StaticDataCache.load(cacheFile).getZip("mymod", pack));
+		
+		StaticDataIndex index = new StaticDataEngine().addRoot("mymod", root).withCacheFile(cacheFile).scan();
+		assertEquals("{\"changed\":true}", index.getExactData(OAK).get(0).getAsString());
+		assertEquals(2, StaticDataCache.load(cacheFile).getZip("mymod", pack).size());
+	}
+	
+	@Test
+	void ignoresCorruptCacheFiles() throws IOException {
+		Path root = Files.createDirectories(dir.resolve("staticdata"));
+		Path pack = root.resolve("pack.zip");
+		ZipPackTest.writeZip(pack, "staticdata/mymod/blocks/oak.json", "{}");
+		Path cacheFile = dir.resolve("index.cache");
+		new StaticDataEngine().addRoot("mymod", root).withCacheFile(cacheFile).scan();
+		
+		byte[] contents = Files.readAllBytes(cacheFile);
+		contents[contents.length - 1] ^= 1;
+		Files.write(cacheFile, contents);
+		assertNull(StaticDataCache.load(cacheFile).getZip("mymod", pack));
+	}
+	
+	/**
+	 * The warm-up opens packs before the scan, which must not stop the scan from using a cached listing instead. A
+	 * listing from the cache examined exactly the entries it kept, while scanning the pack examines every entry.
+	 */
+	@Test
+	void servesCachedListingsAfterWarmUp() throws IOException {
+		Path root = Files.createDirectories(dir.resolve("staticdata"));
+		Path pack = root.resolve("pack.zip");
+		ZipPackTest.writeZip(pack, "com/example/Mod.class", "", "staticdata/mymod/blocks/oak.json", "{}");
+		Path cacheFile = dir.resolve("index.cache");
+		List<StaticDataRoot> roots = List.of(new StaticDataRoot("mymod", root));
+		new StaticDataEngine().addRoots(roots).withCacheFile(cacheFile).scan();
+		
+		try {
+			// A warm-up that knows about the cache leaves the cached pack alone
+			PackWarmUp.start(roots, cacheFile);
+			PackWarmUp.await();
+			StaticDataCache cache = PackWarmUp.takeCache();
+			assertNotNull(cache);
+			assertNull(PackWarmUp.takeZipPack(pack));
+			assertEquals(1, getPack(new StaticDataEngine().addRoots(roots).withCacheFile(cacheFile, cache).scan()).getEntriesExamined());
+			PackWarmUp.clear();
+			
+			// One that doesn't still opens it, but the scan prefers the cached listing
+			PackWarmUp.start(roots, null);
+			PackWarmUp.await();
+			assertEquals(1, getPack(new StaticDataEngine().addRoots(roots).withCacheFile(cacheFile).scan()).getEntriesExamined());
+		} finally {
+			PackWarmUp.clear();
+		}
+	}
+	
+	private static ZipPack getPack(StaticDataIndex index) {
+		return ((ZipSupplierIndex) index.getSuppliers().get(0)).getPack();
+	}
+}
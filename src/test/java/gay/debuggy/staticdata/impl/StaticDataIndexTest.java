@@ -0,0 +1,74 @@
+package gay.debuggy.staticdata.impl;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import gay.debuggy.staticdata.api.StaticDataItem;
+import net.minecraft.util.Identifier;
+
+class StaticDataIndexTest {
+	private static final Identifier BLOCKS = Identifier.of("mymod", "blocks");
+	private static final Identifier OAK = Identifier.of("mymod", "blocks/oak.json");
+	private static final Identifier STONE = Identifier.of("mymod", "blocks/stone.json");
+	
+	@TempDir
+	Path dir;
+	
+	@Test
+	void listsSuppliersInOrder() throws IOException {
+		StaticDataIndex index = new StaticDataEngine()
+				.addSource("first", new MemoryStaticDataSource().put(OAK, "1"))
+				.addSource("second", new MemoryStaticDataSource().put(OAK, "2").put(STONE, "2"))
+				.addSource("third", new MemoryStaticDataSource().put(OAK, "3"))
+				.scan();
+		
+		assertEquals(List.of("first", "second", "third"), index.getExactData(OAK).stream().map(StaticDataItem::getModId).toList());
+		assertEquals(List.of("first", "second", "second", "third"), index.getDataInDirectory(BLOCKS, false).stream().map(StaticDataItem::getModId).toList());
+	}
+	
+	@Test
+	void lastSupplierWinsOverlay() throws IOException {
+		StaticDataIndex index = new StaticDataEngine()
+				.addSource("first", new MemoryStaticDataSource().put(OAK, "1"))
+				.addSource("second", new MemoryStaticDataSource().put(OAK, "2").put(STONE, "2"))
+				.addSource("third", new MemoryStaticDataSource().put(OAK, "3"))
+				.scan();
+		
+		List<String> overridden = new ArrayList<>();
+		List<StaticDataItem> winners = index.getOverlaidDataInDirectory(BLOCKS, false, (winner, losers) -> {
+			overridden.add(winner.getModId()+" over "+losers.stream().map(StaticDataItem::getModId).toList());
+		});
+		
+		assertEquals(List.of(OAK, STONE), winners.stream().map(StaticDataItem::getResourceId).toList());
+		assertEquals("3", winners.get(0).getAsString());
+		assertEquals("2", winners.get(1).getAsString());
+		assertEquals(List.of("third over [first, second]"), overridden);
+	}
+	
+	@Test
+	void rootsAreListedBeforeSources() throws IOException {
+		Path root = dir.resolve("staticdata");
+		Files.createDirectories(root.resolve("mymod/blocks"));
+		Files.writeString(root.resolve("mymod/blocks/oak.json"), "root");
+		ZipPackTest.writeZip(root.resolve("pack.zip"), "staticdata/mymod/blocks/oak.json", "pack");
+		
+		StaticDataIndex index = new StaticDataEngine()
+				.addSource("source", new MemoryStaticDataSource().put(OAK, "source"))
+				.addRoot("file", root)
+				.scan();
+		
+		List<String> contents = new ArrayList<>();
+		for(StaticDataItem item : index.getExactData(OAK)) contents.add(item.getAsString());
+		// Within a root, packs are listed before its raw files
+		assertEquals(List.of("pack", "root", "source"), contents);
+		assertEquals("source", index.getOverlaidDataInDirectory(BLOCKS, false, null).get(0).getAsString());
+	}
+}
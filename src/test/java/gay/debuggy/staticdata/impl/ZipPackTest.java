@@ -0,0 +1,261 @@
+package gay.debuggy.staticdata.impl;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+import java.util.stream.Stream;
+import java.util.zip.CRC32;
+import java.util.zip.Deflater;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipException;
+import java.util.zip.ZipOutputStream;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.junit.jupiter.api.io.TempDir;
+
+import gay.debuggy.staticdata.api.StaticDataItem;
+import net.minecraft.util.Identifier;
+
+class ZipPackTest {
+	@TempDir
+	Path dir;
+	
+	@Test
+	void readsStoredAndDeflatedEntries() throws IOException {
+		Path zip = dir.resolve("pack.zip");
+		try (ZipOutputStream out = new ZipOutputStream(Files.newOutputStream(zip))) {
+			out.putNextEntry(new ZipEntry("staticdata/"));
+			putStored(out, "staticdata/mymod/stored.json", "{\"stored\":true}");
+			out.putNextEntry(new ZipEntry("staticdata/mymod/deflated.json"));
+			out.write("{\"deflated\":true}".getBytes(StandardCharsets.UTF_8));
+		}
+		
+		ZipPack pack = new ZipPack(zip);
+		List<ZipPack.Entry> entries = pack.getEntries();
+		assertEquals(List.of("staticdata/", "staticdata/mymod/stored.json", "staticdata/mymod/deflated.json"), entries.stream().map(ZipPack.Entry::name).toList());
+		assertTrue(entries.get(0).isDirectory());
+		assertEquals(ZipPack.METHOD_STORED, entries.get(1).method());
+		assertEquals(ZipPack.METHOD_DEFLATED, entries.get(2).method());
+		assertEquals("{\"stored\":true}", new String(pack.readEntry(entries.get(1)), StandardCharsets.UTF_8));
+		assertEquals("{\"deflated\":true}", new String(pack.readEntry(entries.get(2)), StandardCharsets.UTF_8));
+	}
+	
+	@Test
+	void filterSkipsEntriesButCountsThem() throws IOException {
+		Path zip = dir.resolve("mod.jar");
+		try (ZipOutputStream out = new ZipOutputStream(Files.newOutputStream(zip))) {
+			for(String name : List.of("com/example/Mod.class", "staticdata/", "staticdata/mymod/a.json", "assets/mymod/icon.png", "staticdata\\mymod\\b.json")) {
+				out.putNextEntry(new ZipEntry(name));
+			}
+		}
+		
+		ZipPack pack = new ZipPack(zip, EntryNameMatcher.staticData());
+		assertEquals(List.of("staticdata/mymod/a.json", "staticdata\\mymod\\b.json"), pack.getEntries().stream().map(ZipPack.Entry::name).toList());
+		assertEquals(5, pack.getEntriesExamined());
+	}
+	
+	/**
+	 * More than 65535 entries don't fit in the classic end record, so this pack can only be read through its ZIP64 end
+	 * record.
+	 */
+	@Test
+	void readsZip64Directory() throws IOException {
+		int entryCount = 70_000;
+		Path zip = dir.resolve("many.zip");
+		try (ZipOutputStream out = new ZipOutputStream(Files.newOutputStream(zip))) {
+			for(int i=0; i<entryCount; i++) {
+				out.putNextEntry(new ZipEntry("staticdata/mymod/"+i+".txt"));
+				out.write(Integer.toString(i).getBytes(StandardCharsets.UTF_8));
+			}
+		}
+		
+		ZipPack pack = new ZipPack(zip);
+		assertEquals(entryCount, pack.getEntries().size());
+		ZipPack.Entry last = pack.getEntries().get(entryCount - 1);
+		assertEquals("staticdata/mymod/"+(entryCount - 1)+".txt", last.name());
+		assertEquals(Integer.toString(entryCount - 1), new String(pack.readEntry(last), StandardCharsets.UTF_8));
+	}
+	
+	@Test
+	void rejectsDirectoryPastEndOfFile() throws IOException {
+		Path zip = dir.resolve("corrupt.zip");
+		try (ZipOutputStream out = new ZipOutputStream(Files.newOutputStream(zip))) {
+			out.putNextEntry(new ZipEntry("staticdata/mymod/a.json"));
+		}
+		
+		// The end record is the last 22 bytes, and the directory's offset is 16 bytes into it
+		try (FileChannel channel = FileChannel.open(zip, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+			ByteBuffer offset = ByteBuffer.allocate(4).order(ByteOrder.LITTLE_ENDIAN).putInt(0, 0x7FFFFFF0);
+			channel.write(offset, channel.size() - 22 + 16);
+		}
+		
+		assertThrows(ZipException.class, () -> new ZipPack(zip));
+	}
+	
+	/**
+	 * Streams a single entry larger than 4 GiB, which needs ZIP64 sizes in its data descriptor and central header, line
+	 * by line through the index. The test JVM's heap is far smaller than the entry, so this only passes if nothing reads
+	 * the whole entry into memory. It takes a while, so it only runs with {@code ./gradlew test -PlargeTests}.
+	 */
+	@Test
+	@EnabledIfSystemProperty(named = "staticdata.test.large", matches = "true")
+	void streamsEntryLargerThan4GiB() throws IOException {
+		byte[] line = "0123456789abcdef0123456789abcdef0123456789abcdef0123456789abcde\n".getBytes(StandardCharsets.UTF_8);
+		byte[] block = new byte[line.length * 1024];
+		for(int i=0; i<1024; i++) System.arraycopy(line, 0, block, i * line.length, line.length);
+		long blockCount = (4L * 1024 * 1024 * 1024) / block.length + 1;
+		long lineCount = blockCount * 1024;
+		
+		Path root = Files.createDirectories(dir.resolve("staticdata"));
+		Path zip = root.resolve("big.zip");
+		CRC32 crc = new CRC32();
+		try (ZipOutputStream out = new ZipOutputStream(Files.newOutputStream(zip))) {
+			out.setLevel(Deflater.BEST_SPEED);
+			out.putNextEntry(new ZipEntry("staticdata/mymod/big.txt"));
+			for(long i=0; i<blockCount; i++) {
+				out.write(block);
+				crc.update(block);
+			}
+		}
+		
+		ZipPack pack = new ZipPack(zip);
+		ZipPack.Entry entry = pack.getEntries().get(0);
+		assertEquals(lineCount * line.length, entry.size());
+		assertEquals(crc.getValue(), entry.crc());
+		
+		StaticDataIndex index = new StaticDataEngine().addRoot("mymod", root).scan();
+		StaticDataItem item = index.getExactData(Identifier.of("mymod", "big.txt")).get(0);
+		try (Stream<String> lines = item.streamLines()) {
+			assertEquals(lineCount, lines.count());
+		}
+		
+		CRC32 read = new CRC32();
+		try (InputStream in = pack.openEntry(entry)) {
+			byte[] buf = new byte[65536];
+			int count;
+			while((count = in.read(buf)) != -1) read.update(buf, 0, count);
+		}
+		assertEquals(crc.getValue(), read.getValue());
+	}
+	
+	@Test
+	void rejectsEntryWithWrongCrc() throws IOException {
+		Path zip = dir.resolve("pack.zip");
+		try (ZipOutputStream out = new ZipOutputStream(Files.newOutputStream(zip))) {
+			putStored(out, "staticdata/mymod/a.json", "{\"value\":1}");
+		}
+		
+		// Change the stored data without touching the CRC recorded for it
+		byte[] bytes = Files.readAllBytes(zip);
+		byte[] data = "{\"value\":1}".getBytes(StandardCharsets.UTF_8);
+		int dataOffset = indexOf(bytes, data);
+		bytes[dataOffset + 9] = '2';
+		Files.write(zip, bytes);
+		
+		ZipPack pack = new ZipPack(zip);
+		try (InputStream in = pack.openEntry(pack.getEntries().get(0))) {
+			assertThrows(ZipException.class, in::readAllBytes);
+		}
+	}
+	
+	@Test
+	void rejectsEntryWithWrongSize() throws IOException {
+		Path zip = dir.resolve("pack.zip");
+		writeZip(zip, "staticdata/mymod/a.json", "{\"value\":1}");
+		
+		// Claim one more byte than the data inflates to, in the central header's uncompressed size
+		byte[] bytes = Files.readAllBytes(zip);
+		int header = indexOf(bytes, new byte[] { 'P', 'K', 1, 2 });
+		ByteBuffer.wrap(bytes).order(ByteOrder.LITTLE_ENDIAN).putInt(header + 24, "{\"value\":1}".length() + 1);
+		Files.write(zip, bytes);
+		
+		ZipPack pack = new ZipPack(zip);
+		try (InputStream in = pack.openEntry(pack.getEntries().get(0))) {
+			assertThrows(ZipException.class, in::readAllBytes);
+		}
+	}
+	
+	@Test
+	void readEntryRejectsWrongSizes() throws IOException {
+		for(int delta : new int[] { 1, -1 }) {
+			Path zip = dir.resolve("pack"+delta+".zip");
+			writeZip(zip, "staticdata/mymod/a.json", "{\"value\":1}");
+			
+			byte[] bytes = Files.readAllBytes(zip);
+			int header = indexOf(bytes, new byte[] { 'P', 'K', 1, 2 });
+			ByteBuffer.wrap(bytes).order(ByteOrder.LITTLE_ENDIAN).putInt(header + 24, "{\"value\":1}".length() + delta);
+			Files.write(zip, bytes);
+			
+			ZipPack pack = new ZipPack(zip);
+			assertThrows(ZipException.class, () -> pack.readEntry(pack.getEntries().get(0)));
+		}
+	}
+	
+	private static int indexOf(byte[] bytes, byte[] target) {
+		search: for(int i=0; i<=bytes.length - target.length; i++) {
+			for(int j=0; j<target.length; j++) {
+				if (bytes[i + j] != target[j]) continue search;
+			}
+			return i;
+		}
+		throw new AssertionError("Couldn't find the bytes to corrupt");
+	}
+	
+	@Test
+	void mappedEntriesAreSharedAsSeparateViews() throws IOException {
+		Path zip = dir.resolve("pack.zip");
+		String contents = "x".repeat((int) StaticDataImpl.MIN_MAPPED_SIZE);
+		try (ZipOutputStream out = new ZipOutputStream(Files.newOutputStream(zip))) {
+			putStored(out, "staticdata/mymod/big.txt", contents);
+		}
+		
+		ZipPack pack = new ZipPack(zip);
+		ZipPack.Entry entry = pack.getEntries().get(0);
+		ByteBuffer first = pack.mapEntry(entry);
+		assertNotNull(first);
+		assertTrue(first.isReadOnly());
+		first.position(100);
+		
+		ByteBuffer second = pack.mapEntry(entry);
+		assertNotSame(first, second);
+		assertEquals(0, second.position());
+		assertEquals(contents.length(), second.remaining());
+		assertEquals('x', second.get(contents.length() - 1));
+	}
+	
+	private static void putStored(ZipOutputStream out, String name, String contents) throws IOException {
+		byte[] data = contents.getBytes(StandardCharsets.UTF_8);
+		CRC32 crc = new CRC32();
+		crc.update(data);
+		
+		ZipEntry entry = new ZipEntry(name);
+		entry.setMethod(ZipEntry.STORED);
+		entry.setSize(data.length);
+		entry.setCompressedSize(data.length);
+		entry.setCrc(crc.getValue());
+		out.putNextEntry(entry);
+		out.write(data);
+	}
+	
+	/**
+	 * Writes a zip holding each name followed by its contents.
+	 */
+	static void writeZip(Path zip, String... namesAndContents) throws IOException {
+		try (ZipOutputStream out = new ZipOutputStream(Files.newOutputStream(zip))) {
+			for(int i=0; i<namesAndContents.length; i += 2) {
+				out.putNextEntry(new ZipEntry(namesAndContents[i]));
+				out.write(namesAndContents[i + 1].getBytes(StandardCharsets.UTF_8));
+			}
+		}
+	}
+}